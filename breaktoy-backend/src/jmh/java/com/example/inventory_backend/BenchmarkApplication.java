@@ -0,0 +1,67 @@
+package com.example.inventory_backend;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the backend (without a web server unless asked for) against a private in-memory H2 database and
+ * bulk-loads a synthetic catalog, so benchmarks measure the real service and query path.
+ */
+final class BenchmarkApplication {
+
+    private static final int INSERT_BATCH = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param extraProperties additional {@code key=value} overrides, e.g. to switch modes
+     */
+    static ConfigurableApplicationContext start(String databaseName, String... extraProperties) {
+        return start(WebApplicationType.NONE, databaseName, extraProperties);
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType webType, String databaseName,
+                                                String... extraProperties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.main.banner-mode=off",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=warn"));
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+        // Command-line arguments, unlike builder defaults, take precedence over application.properties
+        return new SpringApplicationBuilder(InventoryBackendApplication.class)
+                .web(webType)
+                .run(args.toArray(new String[0]));
+    }
+
+    static void load(ConfigurableApplicationContext context, List<Product> products) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String sql = "insert into product (id, name, category, unit_price, quantity_in_stock, expiration_date, created_at, updated_at) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+        for (int from = 0; from < products.size(); from += INSERT_BATCH) {
+            List<Product> chunk = products.subList(from, Math.min(from + INSERT_BATCH, products.size()));
+            jdbc.batchUpdate(sql, chunk, chunk.size(), (ps, p) -> {
+                ps.setLong(1, p.getId());
+                ps.setString(2, p.getName());
+                ps.setString(3, p.getCategory());
+                ps.setObject(4, p.getUnitPrice());
+                ps.setObject(5, p.getQuantityInStock());
+                ps.setDate(6, p.getExpirationDate() == null ? null : Date.valueOf(p.getExpirationDate()));
+                ps.setDate(7, Date.valueOf(p.getCreatedAt()));
+                ps.setDate(8, Date.valueOf(p.getUpdatedAt()));
+            });
+        }
+        context.getBean(InventoryMetricsStore.class).rebuild();
+        context.getBean(ProductNameIndex.class).rebuild();
+        context.getBean(ProductSnapshotStore.class).rebuild();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.inventory_backend;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic catalogs for the benchmarks.
+ */
+final class CatalogGenerator {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz ";
+
+    private final int categories;
+    private final double nullRatio;
+    private final int nameLength;
+    private final boolean nullPrices;
+
+    /**
+     * @param categories number of distinct categories
+     * @param nullRatio  share of products with a null expiration date (and, when
+     *                   {@code nullPrices} is set, a null unit price)
+     * @param nameLength characters per product name
+     * @param nullPrices whether prices may be null too; the database schema does not allow it
+     */
+    CatalogGenerator(int categories, double nullRatio, int nameLength, boolean nullPrices) {
+        this.categories = categories;
+        this.nullRatio = nullRatio;
+        this.nameLength = nameLength;
+        this.nullPrices = nullPrices;
+    }
+
+    List<Product> generate(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate today = LocalDate.now();
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName(name(random));
+            product.setCategory("category-" + random.nextInt(categories));
+            product.setUnitPrice(nullPrices && random.nextDouble() < nullRatio
+                    ? null
+                    : Math.round(random.nextDouble(0.5, 500) * 100) / 100.0);
+            // Roughly one in five products is out of stock
+            product.setQuantityInStock(random.nextInt(5) == 0 ? 0 : random.nextInt(1, 1000));
+            product.setExpirationDate(random.nextDouble() < nullRatio ? null : today.plusDays(random.nextInt(-30, 720)));
+            product.setCreatedAt(today);
+            product.setUpdatedAt(today);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private String name(SplittableRandom random) {
+        char[] chars = new char[nameLength];
+        for (int i = 0; i < nameLength; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(i == 0 ? ALPHABET.length() - 1 : ALPHABET.length()));
+        }
+        if (random.nextBoolean()) {
+            chars[0] = Character.toUpperCase(chars[0]);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.inventory_backend;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Producer-side cost of the write-behind history log, with the real batched writer draining
+ * into H2 in the background. {@code enqueue} measures what {@link ProductHistoryLog} adds
+ * to every committed change; {@code adjustStock} measures a whole write with the log on or
+ * off. The dropped-entry count is printed at the end of each trial, because a producer
+ * rate above the writer's throughput shows up as drops rather than as latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Threads(4)
+public class ProductHistoryBenchmark {
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    @Param({"true", "false"})
+    public boolean historyEnabled;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductHistoryLog historyLog;
+    private ProductChangeEvent[] events;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("history" + historyEnabled,
+                "inventory.history.enabled=" + historyEnabled);
+        BenchmarkApplication.load(context,
+                new CatalogGenerator(50, 0.1, 24, false).generate(catalogSize, 42));
+        productService = context.getBean(ProductService.class);
+        historyLog = context.getBean(ProductHistoryLog.class);
+        events = new ProductChangeEvent[1024];
+        for (int i = 0; i < events.length; i++) {
+            ProductState before = new ProductState((long) i + 1, "p" + i, "category-" + (i % 50), 2.5, 10, null);
+            events[i] = new ProductChangeEvent(ProductChangeEvent.Type.STOCK_CHANGED, before, before.withQuantityInStock(11));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("history log: " + historyLog.stats());
+        context.close();
+    }
+
+    @Benchmark
+    public void enqueue() {
+        historyLog.onProductChange(events[ThreadLocalRandom.current().nextInt(events.length)]);
+    }
+
+    @Benchmark
+    public Optional<Product> adjustStock() {
+        long id = ThreadLocalRandom.current().nextLong(1, catalogSize + 1);
+        try {
+            // Random signs keep the stock from drifting in either direction
+            return productService.adjustStock(id, ThreadLocalRandom.current().nextBoolean() ? 1 : -1);
+        } catch (InsufficientStockException e) {
+            return Optional.empty(); // out-of-stock product, nothing was written
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.inventory_backend;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter + sort + page combinations through {@link ProductService#getAllProducts}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+public class ProductListingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    @Param({"50"})
+    public int categories;
+
+    @Param({"0.1"})
+    public double nullRatio;
+
+    @Param({"24"})
+    public int nameLength;
+
+    @Param({"FIRST_PAGE", "NAME_FILTER_SORTED", "TWO_KEY_SORT_DEEP_PAGE", "CATEGORY_IN_STOCK_SORTED"})
+    public String query;
+
+    @Param({"database", "snapshot"})
+    public String listingSource;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("listing" + catalogSize,
+                "inventory.listing.source=" + listingSource);
+        BenchmarkApplication.load(context,
+                new CatalogGenerator(categories, nullRatio, nameLength, false).generate(catalogSize, 42));
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Product> getAllProducts() {
+        return switch (query) {
+            case "FIRST_PAGE" -> productService.getAllProducts(null, null, null, null, null, "asc", "asc", 0, 10);
+            case "NAME_FILTER_SORTED" -> productService.getAllProducts("ab", null, null, "name", null, "asc", "asc", 0, 10);
+            case "TWO_KEY_SORT_DEEP_PAGE" -> productService.getAllProducts(null, null, null,
+                    "category", "expirationDate", "asc", "desc", catalogSize / 20, 10);
+            case "CATEGORY_IN_STOCK_SORTED" -> productService.getAllProducts(null,
+                    List.of("category-1", "category-2", "category-3"), true, "unitPrice", "name", "desc", "asc", 2, 50);
+            default -> throw new IllegalArgumentException("Unknown query shape " + query);
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.inventory_backend;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes a listing page in each negotiable format, with and without a {@code fields}
+ * projection. The encoded size is reported as the {@code bytes} auxiliary counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"full", "compact"})
+    public String projection;
+
+    @Param({"1000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private Object body;
+    private ByteArrayOutputStream buffer;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        // Same settings as the Boot-built mappers behind the converters
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<Product> products = new CatalogGenerator(50, 0.1, 24, false).generate(pageSize, 42);
+        body = "compact".equals(projection)
+                ? new ProductProjection(products, ProductProjection.parseFields("id,name,quantityInStock"))
+                : products;
+        buffer = new ByteArrayOutputStream(1 << 20);
+    }
+
+    @Benchmark
+    public int serialize(Size size) throws IOException {
+        buffer.reset();
+        mapper.writeValue(buffer, body);
+        size.bytes += buffer.size();
+        return buffer.size();
+    }
+}
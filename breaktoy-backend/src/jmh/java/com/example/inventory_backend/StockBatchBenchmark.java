@@ -0,0 +1,80 @@
+package com.example.inventory_backend;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A reconciliation-style run of {@code operations} stock changes, issued either one call
+ * per product ({@code loop}, the way the single-product endpoints are used today) or as
+ * one {@link ProductService#applyStockOperations} batch. The mix is a third each of set
+ * quantity, delta and out-of-stock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class StockBatchBenchmark {
+
+    @Param({"100000"})
+    public int catalogSize;
+
+    @Param({"10000"})
+    public int operations;
+
+    @Param({"loop", "batch"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private List<StockOperation> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("stock" + mode, "inventory.history.enabled=false");
+        BenchmarkApplication.load(context,
+                new CatalogGenerator(50, 0.1, 24, false).generate(catalogSize, 42));
+        productService = context.getBean(ProductService.class);
+        SplittableRandom random = new SplittableRandom(7);
+        batch = new ArrayList<>(operations);
+        // Distinct ids spread over the catalog; a positive delta so no operation is rejected
+        int stride = catalogSize / operations;
+        for (int i = 0; i < operations; i++) {
+            long id = (long) i * stride + 1;
+            batch.add(switch (i % 3) {
+                case 0 -> new StockOperation(id, random.nextInt(1, 500), null, null);
+                case 1 -> new StockOperation(id, null, random.nextInt(1, 5), null);
+                default -> new StockOperation(id, null, null, true);
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int apply() {
+        if ("batch".equals(mode)) {
+            return productService.applyStockOperations(batch).updated();
+        }
+        int updated = 0;
+        for (StockOperation operation : batch) {
+            if (operation.quantity() != null) {
+                updated += productService.markProductInStock(operation.id(), operation.quantity()).isPresent() ? 1 : 0;
+            } else if (operation.delta() != null) {
+                updated += productService.adjustStock(operation.id(), operation.delta()).isPresent() ? 1 : 0;
+            } else {
+                updated += productService.markProductOutOfStock(operation.id()).isPresent() ? 1 : 0;
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.inventory_backend;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load test comparing Tomcat on platform threads, Tomcat on virtual threads
+ * and the WebFlux/R2DBC stack on Netty. Each client keeps one connection busy, repeatedly
+ * reading a product, listing a page or adjusting stock (the morning stock-count mix), and
+ * records its latency. Throughput (also per core) and percentiles are printed per mode.
+ * <p>
+ * The reactive numbers are not those of non-blocking database I/O: r2dbc-h2 runs its queries
+ * synchronously, on the bounded elastic pool behind Netty. They show what the WebFlux stack
+ * costs with this driver, not what it would do against a networked database.
+ * <p>
+ * Arguments: {@code [catalogSize] [clients] [durationSeconds] [warmupSeconds]}.
+ */
+public final class ThreadModelLoadTest {
+
+    private ThreadModelLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int catalogSize = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        Duration warmup = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 10);
+
+        List<Product> catalog = new CatalogGenerator(50, 0.1, 24, false).generate(catalogSize, 42);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d clients, %d cores%n", clients, cores);
+        System.out.printf("%-9s %10s %10s %10s %10s %10s %10s %8s%n",
+                "mode", "req/s", "req/s/core", "p50 ms", "p99 ms", "max ms", "requests", "errors");
+        for (Mode mode : Mode.values()) {
+            ConfigurableApplicationContext context = BenchmarkApplication.start(mode.webType,
+                    "load-" + mode.label, "server.port=0", "spring.threads.virtual.enabled=" + mode.virtualThreads);
+            try {
+                BenchmarkApplication.load(context, catalog);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                run(port, catalogSize, clients, warmup);
+                Result result = run(port, catalogSize, clients, duration);
+                System.out.printf("%-9s %10.0f %10.0f %10.2f %10.2f %10.2f %10d %8d%n",
+                        mode.label, result.throughput(duration), result.throughput(duration) / cores,
+                        result.percentile(0.50), result.percentile(0.99), result.percentile(1.0),
+                        result.latencies.length, result.errors);
+            } finally {
+                context.close();
+            }
+        }
+        System.out.println("reactive: r2dbc-h2 queries block a bounded-elastic worker, not non-blocking I/O");
+    }
+
+    private static Result run(int port, int catalogSize, int clients, Duration duration) throws Exception {
+        HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        String base = "http://localhost:" + port + "/products";
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> futures = new ArrayList<>(clients);
+        // The clients themselves run on virtual threads so the driver is never the bottleneck
+        try (ExecutorService drivers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(drivers.submit(() -> client(http, base, catalogSize, deadline)));
+            }
+        }
+        List<Result> results = new ArrayList<>(clients);
+        int samples = 0;
+        int errors = 0;
+        for (Future<Result> future : futures) {
+            Result result = future.get();
+            results.add(result);
+            samples += result.latencies.length;
+            errors += result.errors;
+        }
+        long[] latencies = new long[samples];
+        int offset = 0;
+        for (Result result : results) {
+            System.arraycopy(result.latencies, 0, latencies, offset, result.latencies.length);
+            offset += result.latencies.length;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors);
+    }
+
+    private static Result client(HttpClient http, String base, int catalogSize, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[1024];
+        int count = 0;
+        int errors = 0;
+        while (System.nanoTime() < deadline) {
+            long id = 1 + random.nextInt(catalogSize);
+            int pick = random.nextInt(10);
+            HttpRequest request;
+            if (pick < 5) {
+                request = HttpRequest.newBuilder(URI.create(base + "/" + id)).GET().build();
+            } else if (pick < 8) {
+                request = HttpRequest.newBuilder(URI.create(base + "/" + id + "/stock/adjust?delta=1"))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(base + "?category=category-" + random.nextInt(50)
+                        + "&sortBy=unitPrice&page=" + random.nextInt(20) + "&size=20")).GET().build();
+            }
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors++;
+                }
+            } catch (Exception e) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return new Result(Arrays.copyOf(latencies, count), errors);
+    }
+
+    private enum Mode {
+        PLATFORM("platform", WebApplicationType.SERVLET, false),
+        VIRTUAL("virtual", WebApplicationType.SERVLET, true),
+        REACTIVE("reactive", WebApplicationType.REACTIVE, false);
+
+        private final String label;
+        private final WebApplicationType webType;
+        private final boolean virtualThreads;
+
+        Mode(String label, WebApplicationType webType, boolean virtualThreads) {
+            this.label = label;
+            this.webType = webType;
+            this.virtualThreads = virtualThreads;
+        }
+    }
+
+    private record Result(long[] latencies, int errors) {
+
+        double throughput(Duration duration) {
+            return latencies.length / (duration.toMillis() / 1000.0);
+        }
+
+        // Latencies must be sorted
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
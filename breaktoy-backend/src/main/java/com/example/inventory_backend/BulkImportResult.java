@@ -0,0 +1,14 @@
+package com.example.inventory_backend;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1 in input order; each rejected row
+ * carries field-to-message errors, like the single-product validation response.
+ */
+public record BulkImportResult(int received, int imported, List<RowError> errors) {
+
+    public record RowError(int row, Map<String, String> errors) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.inventory_backend;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only dictionary giving each category name a small, stable integer id, so
+ * columnar structures store an {@code int} per product instead of a String reference.
+ */
+@Component
+public class CategoryDictionary {
+
+    public static final int NO_CATEGORY = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private volatile String[] sortKeys = new String[16];
+    private volatile int size;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public int intern(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+        Integer id = ids.get(category);
+        if (id != null) {
+            return id;
+        }
+        lock.lock();
+        try {
+            id = ids.get(category);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            if (next == names.length) {
+                names = Arrays.copyOf(names, next * 2);
+                sortKeys = Arrays.copyOf(sortKeys, next * 2);
+            }
+            names[next] = category;
+            sortKeys[next] = category.toLowerCase(Locale.ROOT);
+            size = next + 1;
+            // Publishing through the map makes the array slots visible to lock-free readers
+            ids.put(category, next);
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Id of an already known category, or {@link #NO_CATEGORY}.
+     */
+    public int idOf(String category) {
+        if (category == null) {
+            return NO_CATEGORY;
+        }
+        Integer id = ids.get(category);
+        return id == null ? NO_CATEGORY : id;
+    }
+
+    public String name(int id) {
+        return id == NO_CATEGORY ? null : names[id];
+    }
+
+    /**
+     * Lowercase form used for case-insensitive ordering.
+     */
+    public String sortKey(int id) {
+        return id == NO_CATEGORY ? null : sortKeys[id];
+    }
+
+    public int size() {
+        return size;
+    }
+}
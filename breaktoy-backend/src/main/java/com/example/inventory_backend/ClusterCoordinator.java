@@ -0,0 +1,143 @@
+package com.example.inventory_backend;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connects this node to its peers through the configured {@link ClusterTransport}. Local
+ * committed changes are broadcast; changes from peers are republished here as
+ * {@link ProductChangeEvent}s carrying their origin, so caches, indexes and aggregates
+ * update exactly as for local writes (without being broadcast again). Metrics are merged
+ * from the partial aggregates of every partition.
+ */
+@Component
+public class ClusterCoordinator implements ClusterTransport.Member {
+
+    private final ClusterTransport transport;
+    private final InventoryMetricsStore metricsStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+
+    public ClusterCoordinator(ObjectProvider<ClusterTransport> transport,
+                              InventoryMetricsStore metricsStore,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${inventory.cluster.node-id:}") String nodeId) {
+        this.transport = transport.getIfAvailable();
+        this.metricsStore = metricsStore;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId.isEmpty() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    @PostConstruct
+    public void join() {
+        if (transport != null) {
+            transport.join(this);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (transport != null) {
+            transport.leave(this);
+        }
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Order(20)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (transport != null && !event.isRemote()) {
+            sent.incrementAndGet();
+            transport.broadcast(nodeId, event);
+        }
+    }
+
+    @Override
+    public void receive(String origin, ProductChangeEvent event) {
+        received.incrementAndGet();
+        eventPublisher.publishEvent(event.fromNode(origin));
+    }
+
+    @Override
+    public ClusterTransport.PartialMetrics partialMetrics() {
+        return new ClusterTransport.PartialMetrics(nodeId, metricsStore.getPartitionIndex(), metricsStore.partialTotals());
+    }
+
+    public InventoryMetricsSnapshot getMetrics() {
+        return getMetrics(null);
+    }
+
+    /**
+     * Entity tag of the current metrics, or null when they cannot be tagged: merged
+     * partials depend on the state of the peers, which the local version does not cover.
+     */
+    public String getMetricsEtag() {
+        return tagged() ? metricsStore.etag(metricsStore.getVersion()) : null;
+    }
+
+    /**
+     * Entity tag of {@code metrics}, taken from its own version, or null as above.
+     */
+    public String getMetricsEtag(InventoryMetricsSnapshot metrics) {
+        return tagged() ? metricsStore.etag(metrics.version()) : null;
+    }
+
+    private boolean tagged() {
+        return metricsStore.getPartitions() == 1 || transport == null;
+    }
+
+    /**
+     * Cluster-wide metrics. With a single partition the local store already covers every
+     * product; otherwise one partial per partition is merged, and {@code partitions}
+     * reports how many answered so an incomplete result can be recognised.
+     */
+    public InventoryMetricsSnapshot getMetrics(Collection<String> categories) {
+        int partitions = metricsStore.getPartitions();
+        if (partitions == 1 || transport == null) {
+            return categories == null ? metricsStore.getMetrics() : metricsStore.getMetrics(categories);
+        }
+        Map<Integer, ClusterTransport.PartialMetrics> byPartition = new HashMap<>();
+        byPartition.put(metricsStore.getPartitionIndex(), partialMetrics());
+        for (ClusterTransport.PartialMetrics partial : transport.collectPartials(nodeId)) {
+            byPartition.putIfAbsent(partial.partition(), partial);
+        }
+        Map<String, MetricsAccumulator> merged = new HashMap<>();
+        for (ClusterTransport.PartialMetrics partial : byPartition.values()) {
+            partial.byCategory().forEach((category, totals) ->
+                    merged.computeIfAbsent(category, c -> new MetricsAccumulator()).merge(totals));
+        }
+        InventoryMetricsSnapshot metrics = InventoryMetricsSnapshot.of(metricsStore.getVersion(),
+                InventoryMetricsStore.sum(merged.values()), merged, categories);
+        return metrics.withPartitions(partitions, byPartition.size());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("clustered", transport != null);
+        stats.put("partitions", metricsStore.getPartitions());
+        stats.put("partitionIndex", metricsStore.getPartitionIndex());
+        stats.put("changesSent", sent.get());
+        stats.put("changesReceived", received.get());
+        return stats;
+    }
+}
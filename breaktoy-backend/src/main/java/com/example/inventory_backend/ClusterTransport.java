@@ -0,0 +1,41 @@
+package com.example.inventory_backend;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carries committed product changes and metric partials between the backend instances
+ * of a cluster. Provide a bean of this type to run multi-node; without one the node is
+ * standalone. Implementations must deliver a member's changes to each peer in order.
+ */
+public interface ClusterTransport {
+
+    void join(Member member);
+
+    void leave(Member member);
+
+    /**
+     * Sends {@code event} to every member except {@code origin}; may return before delivery.
+     */
+    void broadcast(String origin, ProductChangeEvent event);
+
+    /**
+     * Partial metrics of every member except {@code requester}.
+     */
+    List<PartialMetrics> collectPartials(String requester);
+
+    interface Member {
+
+        String nodeId();
+
+        void receive(String origin, ProductChangeEvent event);
+
+        PartialMetrics partialMetrics();
+    }
+
+    /**
+     * Aggregates of the products in one node's metric partition.
+     */
+    record PartialMetrics(String nodeId, int partition, Map<String, MetricsAccumulator> byCategory) {
+    }
+}
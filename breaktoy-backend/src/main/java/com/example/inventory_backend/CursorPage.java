@@ -0,0 +1,9 @@
+package com.example.inventory_backend;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page.
+ */
+public record CursorPage(List<Product> content, String nextCursor) {
+}
@@ -0,0 +1,14 @@
+package com.example.inventory_backend;
+
+import jakarta.persistence.PostLoad;
+
+/**
+ * Counts hydrated entities towards the current request.
+ */
+public class EntityLoadCounter {
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        RequestStatistics.entityLoaded();
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.inventory_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Daily expiry buckets (count, stock, value) per category for the next
+ * {@code inventory.expiring.horizon-days} days. Built from a grouped query at startup and
+ * again every night when the window moves, and kept current from change events in
+ * between, so a report costs O(categories x days) regardless of catalog size. The query
+ * is re-run until no change was applied while it ran, as its result may or may not
+ * include such a change.
+ */
+@Component
+public class ExpiringStockReport {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiringStockReport.class);
+
+    private final ProductRepository productRepository;
+    private final int horizonDays;
+    private final ReentrantLock lock = new ReentrantLock();
+    // One rebuild at a time, so a rollover seen by several requests runs the query once
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private LocalDate firstDay = LocalDate.MIN;
+    private Map<String, Buckets> byCategory = new HashMap<>();
+    // Changes applied so far; a rebuild whose query overlapped one of them runs again
+    private long changes;
+
+    public ExpiringStockReport(ProductRepository productRepository,
+                               @Value("${inventory.expiring.horizon-days:30}") int horizonDays) {
+        this.productRepository = productRepository;
+        this.horizonDays = Math.max(1, horizonDays);
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    @Scheduled(cron = "${inventory.expiring.refresh-cron:0 5 0 * * *}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            LocalDate today = LocalDate.now();
+            for (int attempt = 1; ; attempt++) {
+                long observed = changeCount();
+                Map<String, Buckets> fresh = new HashMap<>();
+                for (Object[] row : productRepository.aggregateExpiring(today, today.plusDays(horizonDays))) {
+                    int day = (int) (((LocalDate) row[1]).toEpochDay() - today.toEpochDay());
+                    fresh.computeIfAbsent((String) row[0], c -> new Buckets(horizonDays + 1))
+                            .add(day, ((Number) row[2]).longValue(), longValue(row[3]), doubleValue(row[4]));
+                }
+                lock.lock();
+                try {
+                    if (changes == observed) {
+                        firstDay = today;
+                        byCategory = fresh;
+                        log.info("Expiry buckets rebuilt from {} for {} categories after {} queries",
+                                today, fresh.size(), attempt);
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (attempt % 10 == 0) {
+                    log.warn("Expiry buckets rebuild retried {} times, changes keep arriving during the query", attempt);
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        lock.lock();
+        try {
+            applyChange(event);
+            changes++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long changeCount() {
+        lock.lock();
+        try {
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyChange(ProductChangeEvent event) {
+        if (event.before() != null) {
+            apply(event.before(), -1);
+        }
+        if (event.after() != null) {
+            apply(event.after(), 1);
+        }
+    }
+
+    /**
+     * Products expiring between today and {@code days} days from now (inclusive), per
+     * category and per day, with the stock and value at risk.
+     */
+    public Map<String, Object> summary(int days) {
+        if (days < 0 || days > horizonDays) {
+            throw new InvalidExpiryWindowException("days must be between 0 and " + horizonDays);
+        }
+        if (!LocalDate.now().equals(currentFirstDay())) {
+            rollOver(); // the nightly job has not run yet
+        }
+        lock.lock();
+        try {
+            Buckets total = new Buckets(days + 1);
+            Map<String, Map<String, Object>> categories = new TreeMap<>();
+            byCategory.forEach((category, buckets) -> {
+                Buckets window = new Buckets(1);
+                for (int day = 0; day <= days; day++) {
+                    window.add(0, buckets.count[day], buckets.stock[day], buckets.value[day]);
+                    total.add(day, buckets.count[day], buckets.stock[day], buckets.value[day]);
+                }
+                if (window.count[0] > 0 && category != null) {
+                    categories.put(category, window.toMap(0));
+                }
+            });
+            List<Map<String, Object>> byDay = new ArrayList<>(days + 1);
+            Buckets sum = new Buckets(1);
+            for (int day = 0; day <= days; day++) {
+                Map<String, Object> bucket = total.toMap(day);
+                bucket.put("date", firstDay.plusDays(day).toString());
+                byDay.add(bucket);
+                sum.add(0, total.count[day], total.stock[day], total.value[day]);
+            }
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("from", firstDay.toString());
+            report.put("until", firstDay.plusDays(days).toString());
+            report.put("totals", sum.toMap(0));
+            report.put("byCategory", categories);
+            report.put("byDay", byDay);
+            return report;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Requests that find the window out of date wait for a single rebuild instead of each running one
+    private void rollOver() {
+        rebuildLock.lock();
+        try {
+            if (!LocalDate.now().equals(currentFirstDay())) {
+                rebuild();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private LocalDate currentFirstDay() {
+        lock.lock();
+        try {
+            return firstDay;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(ProductState state, int sign) {
+        if (state.expirationDate() == null) {
+            return;
+        }
+        long day = state.expirationDate().toEpochDay() - firstDay.toEpochDay();
+        if (day < 0 || day > horizonDays) {
+            return;
+        }
+        Integer quantity = state.quantityInStock();
+        double value = quantity == null || state.unitPrice() == null ? 0 : state.unitPrice() * quantity;
+        Buckets buckets = byCategory.computeIfAbsent(state.category(), c -> new Buckets(horizonDays + 1));
+        buckets.add((int) day, sign, sign * (quantity == null ? 0L : quantity), sign * value);
+    }
+
+    private static long longValue(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    private static double doubleValue(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+
+    private static final class Buckets {
+
+        final long[] count;
+        final long[] stock;
+        final double[] value;
+
+        Buckets(int days) {
+            count = new long[days];
+            stock = new long[days];
+            value = new double[days];
+        }
+
+        void add(int day, long count, long stock, double value) {
+            this.count[day] += count;
+            this.stock[day] += stock;
+            this.value[day] += value;
+        }
+
+        Map<String, Object> toMap(int day) {
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("productCount", count[day]);
+            bucket.put("totalStock", stock[day]);
+            bucket.put("valueAtRisk", value[day]);
+            return bucket;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.inventory_backend;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * A listing page together with the facet counts of the filter that selected it.
+ */
+public record FacetedPage(Page<Product> page, ListingFacets facets) {
+}
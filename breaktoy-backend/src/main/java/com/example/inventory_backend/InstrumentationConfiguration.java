@@ -0,0 +1,56 @@
+package com.example.inventory_backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires the per-request statistics: SQL statement counting in Hibernate, the recording
+ * interceptor and the timed JSON, CBOR and Smile converters (which replace Boot's defaults).
+ */
+@Configuration
+public class InstrumentationConfiguration {
+
+    @Bean
+    HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingInspector());
+    }
+
+    @Bean
+    WebMvcConfigurer requestStatisticsConfigurer(MeterRegistry registry,
+                                                 @Value("${inventory.instrumentation.overfetch-ratio:100}") long overfetchRatio,
+                                                 @Value("${inventory.instrumentation.overfetch-min-rows:1000}") long overfetchMinRows) {
+        RequestStatisticsInterceptor interceptor = new RequestStatisticsInterceptor(registry, overfetchRatio, overfetchMinRows);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry interceptors) {
+                interceptors.addInterceptor(interceptor).addPathPatterns("/products/**");
+            }
+        };
+    }
+
+    @Bean
+    TimedConverters.Json timedJsonConverter(ObjectMapper objectMapper, StageTimers stageTimers) {
+        return new TimedConverters.Json(objectMapper, stageTimers);
+    }
+
+    // Built from Boot's builder so the binary formats share the JSON settings (ISO dates etc.)
+    @Bean
+    TimedConverters.Cbor timedCborConverter(Jackson2ObjectMapperBuilder builder, StageTimers stageTimers) {
+        return new TimedConverters.Cbor(builder.factory(new CBORFactory()).build(), stageTimers);
+    }
+
+    @Bean
+    TimedConverters.Smile timedSmileConverter(Jackson2ObjectMapperBuilder builder, StageTimers stageTimers) {
+        return new TimedConverters.Smile(builder.factory(new SmileFactory()).build(), stageTimers);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.inventory_backend;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(Long id, int delta) {
+        super("Adjusting product " + id + " by " + delta + " would make its stock negative");
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.inventory_backend;
+
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
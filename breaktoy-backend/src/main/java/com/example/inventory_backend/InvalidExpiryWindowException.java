@@ -0,0 +1,8 @@
+package com.example.inventory_backend;
+
+public class InvalidExpiryWindowException extends IllegalArgumentException {
+
+    public InvalidExpiryWindowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.inventory_backend;
+
+public class InvalidFieldsException extends IllegalArgumentException {
+
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
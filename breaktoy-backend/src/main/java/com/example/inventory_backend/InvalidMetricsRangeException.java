@@ -0,0 +1,8 @@
+package com.example.inventory_backend;
+
+public class InvalidMetricsRangeException extends IllegalArgumentException {
+
+    public InvalidMetricsRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.inventory_backend;
+
+public class InvalidStockBatchException extends IllegalArgumentException {
+
+    public InvalidStockBatchException(String message) {
+        super(message);
+    }
+}
@@ -2,12 +2,22 @@ package com.example.inventory_backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
 
 @SpringBootApplication
+@EnableScheduling
 public class InventoryBackendApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(InventoryBackendApplication.class, args);
 	}
 
+	@Bean
+	Clock clock() {
+		return Clock.systemUTC();
+	}
+
 }
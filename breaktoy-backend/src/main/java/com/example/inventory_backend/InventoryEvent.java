@@ -0,0 +1,18 @@
+package com.example.inventory_backend;
+
+import java.util.List;
+
+/**
+ * Compact change notification pushed to dashboards: what changed, the per-category metric
+ * deltas it caused, and the resulting global and affected-category metrics.
+ */
+public record InventoryEvent(long sequence,
+                             ProductChangeEvent.Type type,
+                             Long productId,
+                             ProductState product,
+                             List<CategoryDelta> deltas,
+                             InventoryMetricsSnapshot metrics) {
+
+    public record CategoryDelta(String category, long productCount, long totalStock, double totalValue) {
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.inventory_backend;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent event fan-out of committed product changes. Publishing only offers the event
+ * to each subscriber's bounded queue; a small sender pool drains the queues, so a slow
+ * client never blocks the writer or the other clients. A subscriber whose queue is full
+ * has fallen too far behind and is disconnected, and can reconnect and refetch.
+ */
+@Component
+public class InventoryEventStream {
+
+    static final String EVENT_NAME = "inventory";
+
+    private final ClusterCoordinator clusterCoordinator;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final ExecutorService sender;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public InventoryEventStream(ClusterCoordinator clusterCoordinator,
+                                @Value("${inventory.events.queue-capacity:256}") int queueCapacity,
+                                @Value("${inventory.events.timeout:30m}") Duration timeout,
+                                @Value("${inventory.events.sender-threads:2}") int senderThreads) {
+        this.clusterCoordinator = clusterCoordinator;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeout.toMillis();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueCapacity));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    @Order(10)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent change) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<String> categories = new LinkedHashSet<>();
+        List<InventoryEvent.CategoryDelta> deltas = new ArrayList<>(2);
+        if (change.before() != null) {
+            categories.add(change.before().category());
+        }
+        if (change.after() != null) {
+            categories.add(change.after().category());
+        }
+        categories.remove(null);
+        for (String category : categories) {
+            deltas.add(delta(category, change.before(), change.after()));
+        }
+        InventoryEvent event = new InventoryEvent(sequence.incrementAndGet(), change.type(), change.productId(),
+                change.after(), deltas, clusterCoordinator.getMetrics(categories));
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    // Keeps idle connections from being closed by proxies
+    @Scheduled(fixedDelayString = "${inventory.events.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(null);
+        }
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("subscribers", (long) subscribers.size());
+        stats.put("published", sequence.get());
+        stats.put("droppedSubscribers", dropped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static InventoryEvent.CategoryDelta delta(String category, ProductState before, ProductState after) {
+        MetricsAccumulator change = new MetricsAccumulator();
+        if (before != null && Objects.equals(category, before.category())) {
+            change.remove(before);
+        }
+        if (after != null && Objects.equals(category, after.category())) {
+            change.add(after);
+        }
+        return new InventoryEvent.CategoryDelta(category, change.getProductCount(), change.getTotalStock(),
+                change.getTotalValue());
+    }
+
+    private final class Subscriber {
+
+        // Heartbeats are queued as a marker object because the queue does not accept null
+        private static final Object HEARTBEAT = new Object();
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void offer(InventoryEvent event) {
+            if (!queue.offer(event == null ? HEARTBEAT : event)) {
+                if (event == null) {
+                    return;
+                }
+                dropped.incrementAndGet();
+                subscribers.remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object next;
+                while ((next = queue.poll()) != null) {
+                    if (next == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        InventoryEvent event = (InventoryEvent) next;
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.sequence()))
+                                .name(EVENT_NAME)
+                                .data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An event may have been queued after the last poll but before the flag was cleared
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.example.inventory_backend;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Samples the inventory metrics every {@code inventory.metrics.history.sample-interval} ms
+ * into three {@link MetricsTimeSeries} tiers: minutes, hours and days. Each tier keeps a
+ * fixed number of buckets, so memory stays bounded. Every sample goes into all three
+ * tiers, so the hour and day buckets are exact averages of their samples. History queries
+ * read only these buckets, never the product table. At most
+ * {@code inventory.metrics.history.max-categories} categories are tracked; later ones
+ * are counted and skipped.
+ * <p>
+ * With {@code inventory.metrics.history.file} set, finished buckets are appended to that
+ * file, together with the current hour and day buckets each minute, and replayed at
+ * startup (the last record of a bucket wins). The file is rewritten with just the retained
+ * buckets at startup and when a day bucket closes, so it does not grow without bound.
+ */
+@Component
+public class InventoryMetricsHistory {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryMetricsHistory.class);
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long DAY = Duration.ofDays(1).toMillis();
+    private static final int MAX_POINTS = 1000;
+    private static final int GLOBAL = 0;
+
+    private final ClusterCoordinator clusterCoordinator;
+    private final boolean enabled;
+    private final int maxSeries;
+    private final Path file;
+    private final MetricsTimeSeries[] tiers;
+    // Series 0 is the global totals, the others one category each
+    private final List<String> seriesNames = new ArrayList<>();
+    private final Map<String, Integer> seriesIndex = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private DataOutputStream out;
+    private long samples;
+    private long skippedCategories;
+    private long fileFailures;
+
+    public InventoryMetricsHistory(ClusterCoordinator clusterCoordinator,
+                                   @Value("${inventory.metrics.history.enabled:true}") boolean enabled,
+                                   @Value("${inventory.metrics.history.minutes:1440}") int minutes,
+                                   @Value("${inventory.metrics.history.hours:720}") int hours,
+                                   @Value("${inventory.metrics.history.days:730}") int days,
+                                   @Value("${inventory.metrics.history.max-categories:64}") int maxCategories,
+                                   @Value("${inventory.metrics.history.file:}") String file) {
+        this.clusterCoordinator = clusterCoordinator;
+        this.enabled = enabled;
+        this.maxSeries = maxCategories + 1;
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.tiers = new MetricsTimeSeries[]{
+                new MetricsTimeSeries(MINUTE, minutes, maxSeries),
+                new MetricsTimeSeries(HOUR, hours, maxSeries),
+                new MetricsTimeSeries(DAY, days, maxSeries)};
+        seriesNames.add("");
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled || file == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (Files.exists(file)) {
+                replay();
+            } else if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            compact();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Saves the open buckets, which have not been written yet
+    @PreDestroy
+    public void stop() {
+        lock.lock();
+        try {
+            if (out != null) {
+                for (int tier = 0; tier < tiers.length; tier++) {
+                    write(out, tier, tiers[tier].latest());
+                }
+                out.close();
+                out = null;
+            }
+        } catch (IOException e) {
+            log.warn("Could not close the metrics history file {}", file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.metrics.history.sample-interval:10000}",
+            initialDelayString = "${inventory.metrics.history.sample-interval:10000}")
+    public void sample() {
+        if (enabled) {
+            record(System.currentTimeMillis(), clusterCoordinator.getMetrics());
+        }
+    }
+
+    void record(long time, InventoryMetricsSnapshot metrics) {
+        lock.lock();
+        try {
+            double[][] values = new double[maxSeries][];
+            values[GLOBAL] = new double[]{metrics.totalStock(), metrics.totalValue(), metrics.avgPrice()};
+            metrics.byCategory().forEach((category, totals) -> {
+                int series = category == null || category.isEmpty() || totals == null ? -1 : seriesOf(category);
+                if (series > 0) {
+                    values[series] = new double[]{totals.totalStock(), totals.totalValue(), totals.avgPrice()};
+                }
+            });
+            long[] closed = new long[tiers.length];
+            for (int tier = 0; tier < tiers.length; tier++) {
+                closed[tier] = tiers[tier].add(time, values);
+            }
+            samples++;
+            persist(closed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Metrics between {@code from} and {@code to} from the finest tier that still covers
+     * {@code from}. Points are {@code step} wide, rounded up to a whole number of that tier's
+     * buckets. Without a step, one bucket is used. The step is widened as needed to stay
+     * within {@value #MAX_POINTS} points.
+     *
+     * @param categories the categories to include, or null for all of them
+     */
+    public MetricsHistory history(Instant from, Instant to, Duration step, List<String> categories) {
+        if (!from.isBefore(to)) {
+            throw new InvalidMetricsRangeException("from must be before to");
+        }
+        if (step != null && (step.isNegative() || step.isZero())) {
+            throw new InvalidMetricsRangeException("step must be positive");
+        }
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        lock.lock();
+        try {
+            MetricsTimeSeries tier = tierFor(fromMillis, toMillis, step);
+            long width = tier.width();
+            long requested = step == null ? width : step.toMillis();
+            long buckets = Math.max(Math.ceilDiv(requested, width), Math.ceilDiv(toMillis - fromMillis, width * MAX_POINTS));
+            long stepMillis = buckets * width;
+
+            List<Integer> selected = new ArrayList<>();
+            selected.add(GLOBAL);
+            for (int series = 1; series < seriesNames.size(); series++) {
+                if (categories == null || categories.contains(seriesNames.get(series))) {
+                    selected.add(series);
+                }
+            }
+            int[] indexes = selected.stream().mapToInt(Integer::intValue).toArray();
+            MetricsTimeSeries.Points points = tier.read(fromMillis, toMillis, stepMillis, indexes);
+            Map<String, MetricsHistory.Series> byCategory = new TreeMap<>();
+            for (int i = 1; i < indexes.length; i++) {
+                byCategory.put(seriesNames.get(indexes[i]), series(points, i));
+            }
+            return new MetricsHistory(from, to, stepMillis / 1000, points.timestamps(), series(points, 0), byCategory);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("samples", samples);
+            stats.put("categories", seriesNames.size() - 1);
+            stats.put("skippedCategories", skippedCategories);
+            stats.put("minuteBuckets", tiers[0].capacity());
+            stats.put("hourBuckets", tiers[1].capacity());
+            stats.put("dayBuckets", tiers[2].capacity());
+            stats.put("file", file == null ? null : file.toString());
+            stats.put("fileFailures", fileFailures);
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private MetricsTimeSeries tierFor(long from, long to, Duration step) {
+        for (MetricsTimeSeries tier : tiers) {
+            boolean covers = tier.latest() == MetricsTimeSeries.NONE || from >= tier.oldest();
+            boolean fineEnough = step == null || tier.width() <= step.toMillis() || tier == tiers[0];
+            boolean fewPoints = (to - from) / Math.max(tier.width(), step == null ? 0 : step.toMillis()) <= MAX_POINTS;
+            if (covers && fineEnough && fewPoints) {
+                return tier;
+            }
+        }
+        return tiers[tiers.length - 1];
+    }
+
+    private static MetricsHistory.Series series(MetricsTimeSeries.Points points, int series) {
+        return new MetricsHistory.Series(points.metric(series, MetricsTimeSeries.TOTAL_STOCK),
+                points.metric(series, MetricsTimeSeries.TOTAL_VALUE),
+                points.metric(series, MetricsTimeSeries.AVG_PRICE));
+    }
+
+    // Index of the category's series, registering it if there is room; -1 otherwise
+    private int seriesOf(String name) {
+        Integer series = seriesIndex.get(name);
+        if (series != null) {
+            return series;
+        }
+        if (seriesNames.size() == maxSeries) {
+            skippedCategories++;
+            return -1;
+        }
+        seriesNames.add(name);
+        seriesIndex.put(name, seriesNames.size() - 1);
+        return seriesNames.size() - 1;
+    }
+
+    private void persist(long[] closed) {
+        if (out == null) {
+            return;
+        }
+        try {
+            for (int tier = 0; tier < tiers.length; tier++) {
+                if (closed[tier] != MetricsTimeSeries.NONE) {
+                    write(out, tier, closed[tier]);
+                }
+            }
+            if (closed[0] != MetricsTimeSeries.NONE) {
+                write(out, 1, tiers[1].latest());
+                write(out, 2, tiers[2].latest());
+                out.flush();
+            }
+            if (closed[2] != MetricsTimeSeries.NONE) {
+                compact();
+            }
+        } catch (IOException e) {
+            fileFailures++;
+            log.warn("Could not write the metrics history file {}", file, e);
+        }
+    }
+
+    /*
+     * Record layout: tier (byte), bucket start (long), sample count (int), number of series
+     * (short), then per series its name (UTF, empty for the global totals) and its average
+     * total stock, total value and average price (doubles).
+     */
+    private void write(DataOutputStream output, int tier, long start) throws IOException {
+        int count = tiers[tier].count(start);
+        if (count == 0) {
+            return;
+        }
+        List<Integer> present = new ArrayList<>();
+        for (int series = 0; series < seriesNames.size(); series++) {
+            if (tiers[tier].hasSeries(series)) {
+                present.add(series);
+            }
+        }
+        output.writeByte(tier);
+        output.writeLong(start);
+        output.writeInt(count);
+        output.writeShort(present.size());
+        for (int series : present) {
+            output.writeUTF(seriesNames.get(series));
+            for (int metric = 0; metric < MetricsTimeSeries.METRICS; metric++) {
+                output.writeDouble(tiers[tier].average(series, start, metric));
+            }
+        }
+    }
+
+    private void replay() throws IOException {
+        int records = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int tier;
+                try {
+                    tier = input.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                long start = input.readLong();
+                int count = input.readInt();
+                int seriesCount = input.readShort();
+                double[][] averages = new double[maxSeries][];
+                for (int i = 0; i < seriesCount; i++) {
+                    String name = input.readUTF();
+                    double[] values = new double[MetricsTimeSeries.METRICS];
+                    for (int metric = 0; metric < MetricsTimeSeries.METRICS; metric++) {
+                        values[metric] = input.readDouble();
+                    }
+                    int series = name.isEmpty() ? GLOBAL : seriesOf(name);
+                    if (series >= 0) {
+                        averages[series] = values;
+                    }
+                }
+                if (tier < 0 || tier >= tiers.length) {
+                    throw new IOException("Unknown tier " + tier);
+                }
+                tiers[tier].restore(start, count, averages);
+                records++;
+            }
+        } catch (EOFException e) {
+            log.warn("Metrics history file {} ends in a partial record, which was ignored", file);
+        } catch (IOException e) {
+            log.warn("Metrics history file {} is unreadable after {} records; the rest was ignored", file, records, e);
+        }
+        log.info("Restored {} metrics history buckets from {}", records, file);
+    }
+
+    // Rewrites the file with the retained buckets only, oldest first, then keeps appending to it
+    private void compact() {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                for (int tier = 0; tier < tiers.length; tier++) {
+                    MetricsTimeSeries series = tiers[tier];
+                    if (series.latest() == MetricsTimeSeries.NONE) {
+                        continue;
+                    }
+                    for (long start = series.oldest(); start <= series.latest(); start += series.width()) {
+                        write(output, tier, start);
+                    }
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        } catch (IOException e) {
+            fileFailures++;
+            log.warn("Could not compact the metrics history file {}; history is no longer persisted", file, e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.inventory_backend;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable response of {@code /products/metrics}: global totals, per-category totals and
+ * the inventory version they reflect. Equal versions from the same node always carry the
+ * same numbers, which is what makes the snapshot safe to memoise and to tag with an ETag.
+ * {@code partitions} is only present when the numbers were merged from several nodes.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InventoryMetricsSnapshot(long version,
+                                       long totalStock,
+                                       double totalValue,
+                                       double avgPrice,
+                                       Map<String, MetricTotals> byCategory,
+                                       Partitions partitions) {
+
+    public record Partitions(int expected, int reporting) {
+    }
+
+    /**
+     * Global totals plus {@code byCategory}, either all non-null categories or only
+     * {@code selected} (categories without products then map to null).
+     */
+    static InventoryMetricsSnapshot of(long version, MetricsAccumulator global,
+                                       Map<String, MetricsAccumulator> byCategory,
+                                       Collection<String> selected) {
+        Map<String, MetricTotals> categories = new HashMap<>();
+        if (selected == null) {
+            byCategory.forEach((category, totals) -> {
+                if (category != null) {
+                    categories.put(category, MetricTotals.of(totals));
+                }
+            });
+        } else {
+            for (String category : selected) {
+                MetricsAccumulator totals = byCategory.get(category);
+                categories.put(category, totals == null ? null : MetricTotals.of(totals));
+            }
+        }
+        return new InventoryMetricsSnapshot(version, global.getTotalStock(), global.getTotalValue(),
+                global.getAvgPrice(), Collections.unmodifiableMap(categories), null);
+    }
+
+    InventoryMetricsSnapshot withPartitions(int expected, int reporting) {
+        return new InventoryMetricsSnapshot(version, totalStock, totalValue, avgPrice, byCategory,
+                new Partitions(expected, reporting));
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.inventory_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps inventory metrics up to date from {@link ProductChangeEvent} deltas so that
+ * reading them costs O(#categories) instead of a full table scan. The aggregates are
+ * rebuilt from a grouped database query at startup; the query is re-run until no change
+ * was applied while it ran, as its result may or may not include such a change. With
+ * {@code inventory.metrics.consistency-check=true} every read is also compared against
+ * the database, and drift is logged and repaired.
+ * <p>
+ * With {@code inventory.cluster.partitions > 1} the store only aggregates the products
+ * whose id falls in this node's partition ({@code id mod partitions == partition-index});
+ * {@link ClusterCoordinator} merges the partials of all nodes.
+ * <p>
+ * Every applied change, rebuild and repair bumps a version number, and the last full
+ * snapshot is kept until the version moves on, so repeated polls of an unchanged
+ * inventory return the same object. The version is bumped for changes to products of
+ * other partitions too, as every node sees every change.
+ */
+@Component
+public class InventoryMetricsStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryMetricsStore.class);
+    private static final double VALUE_TOLERANCE = 1e-6;
+
+    private final ProductRepository productRepository;
+    private final boolean consistencyCheck;
+    private final int partitions;
+    private final int partitionIndex;
+    // A ReentrantLock rather than synchronized, which would pin virtual threads while held
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Distinguishes this instance's versions from those of earlier runs or other nodes
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private MetricsAccumulator global = new MetricsAccumulator();
+    private Map<String, MetricsAccumulator> byCategory = new HashMap<>();
+    private long version;
+    private InventoryMetricsSnapshot latest;
+
+    public InventoryMetricsStore(ProductRepository productRepository,
+                                 @Value("${inventory.metrics.consistency-check:false}") boolean consistencyCheck,
+                                 @Value("${inventory.cluster.partitions:1}") int partitions,
+                                 @Value("${inventory.cluster.partition-index:0}") int partitionIndex) {
+        this.productRepository = productRepository;
+        this.consistencyCheck = consistencyCheck;
+        this.partitions = Math.max(1, partitions);
+        this.partitionIndex = partitionIndex;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public int getPartitionIndex() {
+        return partitionIndex;
+    }
+
+    public boolean owns(Long productId) {
+        return partitions == 1 || Math.floorMod(productId, partitions) == partitionIndex;
+    }
+
+    public void rebuild() {
+        for (int attempt = 1; ; attempt++) {
+            long observed = getVersion();
+            Map<String, MetricsAccumulator> fresh = loadFromDatabase();
+            lock.lock();
+            try {
+                if (version == observed) {
+                    byCategory = fresh;
+                    global = sum(fresh.values());
+                    version++;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (attempt % 10 == 0) {
+                log.warn("Inventory metrics rebuild retried {} times, changes keep arriving during the query", attempt);
+            }
+        }
+    }
+
+    // Runs before other listeners so they observe metrics that already include the change
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        lock.lock();
+        try {
+            apply(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(ProductChangeEvent event) {
+        version++;
+        if (!owns(event.productId())) {
+            return;
+        }
+        if (event.before() != null) {
+            global.remove(event.before());
+            MetricsAccumulator category = byCategory.get(event.before().category());
+            if (category != null) {
+                category.remove(event.before());
+                if (category.isEmpty()) {
+                    byCategory.remove(event.before().category());
+                }
+            }
+        }
+        if (event.after() != null) {
+            global.add(event.after());
+            byCategory.computeIfAbsent(event.after().category(), c -> new MetricsAccumulator()).add(event.after());
+        }
+    }
+
+    public InventoryMetricsSnapshot getMetrics() {
+        if (consistencyCheck) {
+            verify();
+        }
+        lock.lock();
+        try {
+            // Built under the lock, so concurrent readers of one version share a single snapshot
+            if (latest == null || latest.version() != version) {
+                latest = InventoryMetricsSnapshot.of(version, global, byCategory, null);
+            }
+            return latest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Global metrics plus only the given categories; a category without products maps to null.
+     */
+    public InventoryMetricsSnapshot getMetrics(Collection<String> categories) {
+        lock.lock();
+        try {
+            return InventoryMetricsSnapshot.of(version, global, byCategory, categories);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Strong entity tag for the snapshot of {@code version}, or null while the consistency
+     * check is on: a read may then repair the aggregates, so it must not be answered
+     * without one.
+     */
+    public String etag(long version) {
+        return consistencyCheck ? null : "\"" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * Copy of the per-category aggregates of this node's partition.
+     */
+    public Map<String, MetricsAccumulator> partialTotals() {
+        lock.lock();
+        try {
+            Map<String, MetricsAccumulator> copy = new HashMap<>();
+            byCategory.forEach((category, totals) -> {
+                MetricsAccumulator clone = new MetricsAccumulator();
+                clone.merge(totals);
+                copy.put(category, clone);
+            });
+            return copy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compares the running aggregates with the database and replaces them when they have
+     * drifted. A single mismatch may just be a change committed during the query whose
+     * event is not applied yet, so the aggregates are only replaced when a second query
+     * agrees with the first and no change was applied since the first began. Returns false
+     * when drift was found and repaired.
+     */
+    public boolean verify() {
+        long observed = getVersion();
+        Map<String, MetricsAccumulator> first = loadFromDatabase();
+        lock.lock();
+        try {
+            if (sameAggregates(first, byCategory)) {
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        Map<String, MetricsAccumulator> second = loadFromDatabase();
+        lock.lock();
+        try {
+            if (sameAggregates(second, byCategory) || !sameAggregates(first, second) || version != observed) {
+                return true;
+            }
+            log.warn("Inventory metrics drifted from the database, rebuilding {} categories", second.size());
+            byCategory = second;
+            global = sum(second.values());
+            version++;
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, MetricsAccumulator> loadFromDatabase() {
+        List<Object[]> rows = partitions == 1
+                ? productRepository.aggregateByCategory()
+                : productRepository.aggregateByCategoryInPartition(partitions, partitionIndex);
+        Map<String, MetricsAccumulator> result = new HashMap<>();
+        for (Object[] row : rows) {
+            MetricsAccumulator totals = new MetricsAccumulator();
+            totals.addTotals(longValue(row[1]), longValue(row[2]), doubleValue(row[3]),
+                    doubleValue(row[4]), longValue(row[5]));
+            result.put((String) row[0], totals);
+        }
+        return result;
+    }
+
+    static MetricsAccumulator sum(Iterable<MetricsAccumulator> parts) {
+        MetricsAccumulator total = new MetricsAccumulator();
+        for (MetricsAccumulator part : parts) {
+            total.merge(part);
+        }
+        return total;
+    }
+
+    private static boolean sameAggregates(Map<String, MetricsAccumulator> a, Map<String, MetricsAccumulator> b) {
+        return a.keySet().equals(b.keySet())
+                && a.entrySet().stream().allMatch(e -> sameTotals(e.getValue(), b.get(e.getKey())));
+    }
+
+    private static boolean sameTotals(MetricsAccumulator a, MetricsAccumulator b) {
+        return b != null
+                && a.getProductCount() == b.getProductCount()
+                && a.getTotalStock() == b.getTotalStock()
+                && Math.abs(a.getTotalValue() - b.getTotalValue()) <= VALUE_TOLERANCE * Math.max(1, Math.abs(a.getTotalValue()))
+                && Math.abs(a.getAvgPrice() - b.getAvgPrice()) <= VALUE_TOLERANCE * Math.max(1, Math.abs(a.getAvgPrice()));
+    }
+
+    private static long longValue(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    private static double doubleValue(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+}
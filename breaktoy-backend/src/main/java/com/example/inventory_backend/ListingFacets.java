@@ -0,0 +1,10 @@
+package com.example.inventory_backend;
+
+import java.util.Map;
+
+/**
+ * Counts of the products matching a listing filter: per category (categories without
+ * matches are left out) and by stock state. Products without a quantity count as neither.
+ */
+public record ListingFacets(Map<String, Long> byCategory, long inStock, long outOfStock) {
+}
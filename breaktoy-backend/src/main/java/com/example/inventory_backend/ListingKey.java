@@ -0,0 +1,28 @@
+package com.example.inventory_backend;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalized shape of a {@code GET /products} offset query, so equivalent requests
+ * ("Pepsi" vs "pepsi", categories in any order, unknown sort fields) share one key.
+ */
+public record ListingKey(String name, List<String> categories, Boolean inStock,
+                         String sortBy, boolean desc, String sortBy2, boolean desc2,
+                         int page, int size) {
+
+    public static ListingKey of(String name, List<String> category, Boolean inStock,
+                                String sortBy, String sortBy2, String order, String order2,
+                                int page, int size) {
+        String normalizedName = name == null || name.isEmpty() ? null : name.toLowerCase(Locale.ROOT);
+        List<String> categories = category == null || category.isEmpty()
+                ? null
+                : category.stream().distinct().sorted().toList();
+        String attribute = sortBy == null ? null : ProductSpecifications.sortAttribute(sortBy);
+        String attribute2 = sortBy2 == null ? null : ProductSpecifications.sortAttribute(sortBy2);
+        return new ListingKey(normalizedName, categories, inStock,
+                attribute, attribute != null && ProductSpecifications.isDescending(order),
+                attribute2, attribute2 != null && ProductSpecifications.isDescending(order2),
+                page, size);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.inventory_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-JVM stand-in for a network transport: every application context in the same JVM
+ * that uses the same {@code inventory.cluster.name} is a member. Like a real transport
+ * it delivers asynchronously, on one thread per member so each peer sees changes in order.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.cluster.transport", havingValue = "loopback")
+public class LoopbackClusterTransport implements ClusterTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(LoopbackClusterTransport.class);
+    private static final Map<String, Map<Member, ExecutorService>> CLUSTERS = new ConcurrentHashMap<>();
+
+    private final Map<Member, ExecutorService> members;
+
+    public LoopbackClusterTransport(@Value("${inventory.cluster.name:inventory}") String clusterName) {
+        this.members = CLUSTERS.computeIfAbsent(clusterName, name -> new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public void join(Member member) {
+        members.put(member, Executors.newSingleThreadExecutor(
+                runnable -> new Thread(runnable, "cluster-" + member.nodeId())));
+    }
+
+    @Override
+    public void leave(Member member) {
+        ExecutorService inbox = members.remove(member);
+        if (inbox != null) {
+            inbox.shutdown();
+        }
+    }
+
+    @Override
+    public void broadcast(String origin, ProductChangeEvent event) {
+        members.forEach((member, inbox) -> {
+            if (!member.nodeId().equals(origin)) {
+                inbox.execute(() -> {
+                    try {
+                        member.receive(origin, event);
+                    } catch (RuntimeException e) {
+                        log.warn("Node {} failed to apply change of product {} from {}",
+                                member.nodeId(), event.productId(), origin, e);
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public List<PartialMetrics> collectPartials(String requester) {
+        List<PartialMetrics> partials = new ArrayList<>();
+        for (Member member : members.keySet()) {
+            if (!member.nodeId().equals(requester)) {
+                partials.add(member.partialMetrics());
+            }
+        }
+        return partials;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.inventory_backend;
+
+/**
+ * Stock and value totals of a set of products: the whole inventory or one category.
+ */
+public record MetricTotals(long totalStock, double totalValue, double avgPrice) {
+
+    public static MetricTotals of(MetricsAccumulator totals) {
+        return new MetricTotals(totals.getTotalStock(), totals.getTotalValue(), totals.getAvgPrice());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.inventory_backend;
+
+/**
+ * Running sums behind totalStock, totalValue and avgPrice. Products can be added and
+ * removed again, which is what lets the metrics be maintained from deltas. The double
+ * sums are compensated (Kahan-Babuska) so millions of additions, or long chains of
+ * add/remove pairs, do not accumulate rounding error.
+ */
+public class MetricsAccumulator {
+
+    private long productCount;
+    private long totalStock;
+    private double totalValue;
+    private double totalValueCompensation;
+    private double inStockPriceSum;
+    private double inStockPriceCompensation;
+    private long inStockCount;
+
+    public void add(ProductState product) {
+        apply(product.unitPrice(), product.quantityInStock(), 1);
+    }
+
+    public void remove(ProductState product) {
+        apply(product.unitPrice(), product.quantityInStock(), -1);
+    }
+
+    void addTotals(long productCount, long totalStock, double totalValue, double inStockPriceSum, long inStockCount) {
+        this.productCount += productCount;
+        this.totalStock += totalStock;
+        addValue(totalValue);
+        addInStockPrice(inStockPriceSum);
+        this.inStockCount += inStockCount;
+    }
+
+    public void merge(MetricsAccumulator other) {
+        productCount += other.productCount;
+        totalStock += other.totalStock;
+        addValue(other.totalValue);
+        addValue(other.totalValueCompensation);
+        addInStockPrice(other.inStockPriceSum);
+        addInStockPrice(other.inStockPriceCompensation);
+        inStockCount += other.inStockCount;
+    }
+
+    private void apply(Double unitPrice, Integer quantity, int sign) {
+        productCount += sign;
+        if (quantity == null) {
+            return;
+        }
+        totalStock += (long) sign * quantity;
+        if (unitPrice != null) {
+            addValue(sign * unitPrice * quantity);
+            if (quantity > 0) {
+                addInStockPrice(sign * unitPrice);
+                inStockCount += sign;
+            }
+        }
+    }
+
+    private void addValue(double x) {
+        double t = totalValue + x;
+        totalValueCompensation += Math.abs(totalValue) >= Math.abs(x) ? (totalValue - t) + x : (x - t) + totalValue;
+        totalValue = t;
+    }
+
+    private void addInStockPrice(double x) {
+        double t = inStockPriceSum + x;
+        inStockPriceCompensation += Math.abs(inStockPriceSum) >= Math.abs(x)
+                ? (inStockPriceSum - t) + x
+                : (x - t) + inStockPriceSum;
+        inStockPriceSum = t;
+    }
+
+    public long getProductCount() { return productCount; }
+    public long getTotalStock() { return totalStock; }
+    public double getTotalValue() { return totalValue + totalValueCompensation; }
+
+    public double getAvgPrice() {
+        return inStockCount == 0 ? 0 : (inStockPriceSum + inStockPriceCompensation) / inStockCount;
+    }
+}
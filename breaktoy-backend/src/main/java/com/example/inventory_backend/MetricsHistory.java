@@ -0,0 +1,20 @@
+package com.example.inventory_backend;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Inventory metrics over time, column-wise: {@code timestamps} (epoch milliseconds, the
+ * start of each point) lines up with every array of {@code global} and {@code byCategory}.
+ * Each point averages the samples taken during its {@code stepSeconds}.
+ */
+public record MetricsHistory(Instant from,
+                             Instant to,
+                             long stepSeconds,
+                             long[] timestamps,
+                             Series global,
+                             Map<String, Series> byCategory) {
+
+    public record Series(double[] totalStock, double[] totalValue, double[] avgPrice) {
+    }
+}
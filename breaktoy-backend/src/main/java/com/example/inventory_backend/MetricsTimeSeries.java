@@ -0,0 +1,228 @@
+package com.example.inventory_backend;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-width buckets of metric samples for a set of series that are sampled together
+ * (the global totals and one series per category). Buckets live in a ring indexed by time,
+ * {@code (start / width) mod capacity}, so a new bucket overwrites the one
+ * {@code capacity} widths older and memory never grows. A bucket keeps its sample count
+ * and, per series, the sums of total stock, total value and average price as primitives.
+ * Not thread-safe.
+ */
+final class MetricsTimeSeries {
+
+    static final int TOTAL_STOCK = 0;
+    static final int TOTAL_VALUE = 1;
+    static final int AVG_PRICE = 2;
+    static final int METRICS = 3;
+    static final long NONE = Long.MIN_VALUE;
+
+    private final long width;
+    private final int capacity;
+    private final long[] starts;
+    private final int[] counts;
+    // [series][slot * METRICS + metric]; a series gets its array with its first sample
+    private final double[][] sums;
+    private long latest = NONE;
+
+    MetricsTimeSeries(long width, int capacity, int maxSeries) {
+        this.width = width;
+        this.capacity = capacity;
+        this.starts = new long[capacity];
+        this.counts = new int[capacity];
+        this.sums = new double[maxSeries][];
+        Arrays.fill(starts, NONE);
+    }
+
+    long width() {
+        return width;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    // Start of the newest bucket, NONE before the first sample
+    long latest() {
+        return latest;
+    }
+
+    // Start of the oldest bucket still retained
+    long oldest() {
+        return latest == NONE ? NONE : latest - (capacity - 1) * width;
+    }
+
+    long bucketStart(long time) {
+        return Math.floorDiv(time, width) * width;
+    }
+
+    /**
+     * Adds a sample taken at {@code time}. {@code values[series]} holds its metrics, or is
+     * null for a series without data at that time (it counts as zero).
+     *
+     * @return the start of the bucket this sample closed, or {@link #NONE}
+     */
+    long add(long time, double[][] values) {
+        long start = bucketStart(time);
+        int slot = open(start);
+        if (slot < 0) {
+            return NONE;
+        }
+        counts[slot]++;
+        for (int series = 0; series < values.length; series++) {
+            if (values[series] != null) {
+                double[] target = series(series);
+                for (int metric = 0; metric < METRICS; metric++) {
+                    target[slot * METRICS + metric] += values[series][metric];
+                }
+            }
+        }
+        long closed = latest != NONE && start > latest ? latest : NONE;
+        latest = Math.max(latest, start);
+        return closed;
+    }
+
+    /**
+     * Replaces the bucket starting at {@code start} with {@code count} samples whose
+     * averages are {@code averages[series]} (null for no data).
+     */
+    void restore(long start, int count, double[][] averages) {
+        int slot = open(start);
+        if (slot < 0) {
+            return;
+        }
+        clear(slot);
+        counts[slot] = count;
+        for (int series = 0; series < averages.length; series++) {
+            if (averages[series] != null) {
+                double[] target = series(series);
+                for (int metric = 0; metric < METRICS; metric++) {
+                    target[slot * METRICS + metric] = averages[series][metric] * count;
+                }
+            }
+        }
+        latest = Math.max(latest, start);
+    }
+
+    // Sample count of the bucket starting at start, 0 when it is not retained
+    int count(long start) {
+        int slot = slot(start);
+        return starts[slot] == start ? counts[slot] : 0;
+    }
+
+    boolean hasSeries(int series) {
+        return sums[series] != null;
+    }
+
+    double average(int series, long start, int metric) {
+        int slot = slot(start);
+        if (starts[slot] != start || counts[slot] == 0 || sums[series] == null) {
+            return 0;
+        }
+        return sums[series][slot * METRICS + metric] / counts[slot];
+    }
+
+    /**
+     * Merges the retained buckets starting in {@code [from, to)} into points {@code step}
+     * wide (a multiple of the width), each the sample-weighted average of its buckets.
+     * Points without samples are left out.
+     */
+    Points read(long from, long to, long step, int[] series) {
+        long first = bucketStart(from);
+        if (latest != NONE) {
+            first = Math.max(first, oldest());
+        }
+        // Every point holds at least one retained bucket, and the first may start before `first`
+        int maxPoints = (int) Math.max(0, Math.min(capacity, (to - first) / step + 2));
+        long[] timestamps = new long[maxPoints];
+        double[][][] values = new double[series.length][METRICS][maxPoints];
+        double[][] groupSums = new double[series.length][METRICS];
+        long group = NONE;
+        long groupCount = 0;
+        int points = 0;
+        for (long start = first; start < to && latest != NONE && start <= latest; start += width) {
+            int slot = slot(start);
+            if (starts[slot] != start || counts[slot] == 0) {
+                continue;
+            }
+            long key = Math.floorDiv(start, step) * step;
+            if (key != group) {
+                if (groupCount > 0) {
+                    points = flush(timestamps, values, groupSums, group, groupCount, points);
+                }
+                group = key;
+                groupCount = 0;
+            }
+            groupCount += counts[slot];
+            for (int i = 0; i < series.length; i++) {
+                if (sums[series[i]] != null) {
+                    for (int metric = 0; metric < METRICS; metric++) {
+                        groupSums[i][metric] += sums[series[i]][slot * METRICS + metric];
+                    }
+                }
+            }
+        }
+        if (groupCount > 0) {
+            points = flush(timestamps, values, groupSums, group, groupCount, points);
+        }
+        return new Points(Arrays.copyOf(timestamps, points), values, points);
+    }
+
+    private static int flush(long[] timestamps, double[][][] values, double[][] groupSums,
+                             long group, long groupCount, int points) {
+        timestamps[points] = group;
+        for (int i = 0; i < values.length; i++) {
+            for (int metric = 0; metric < METRICS; metric++) {
+                values[i][metric][points] = groupSums[i][metric] / groupCount;
+                groupSums[i][metric] = 0;
+            }
+        }
+        return points + 1;
+    }
+
+    // Slot holding start, cleared first if it held an older bucket; -1 if a newer one is there
+    private int open(long start) {
+        int slot = slot(start);
+        if (starts[slot] == start) {
+            return slot;
+        }
+        if (starts[slot] != NONE && starts[slot] > start) {
+            return -1;
+        }
+        starts[slot] = start;
+        clear(slot);
+        return slot;
+    }
+
+    private void clear(int slot) {
+        counts[slot] = 0;
+        for (double[] series : sums) {
+            if (series != null) {
+                Arrays.fill(series, slot * METRICS, slot * METRICS + METRICS, 0);
+            }
+        }
+    }
+
+    private int slot(long start) {
+        return (int) Math.floorMod(Math.floorDiv(start, width), (long) capacity);
+    }
+
+    private double[] series(int series) {
+        if (sums[series] == null) {
+            sums[series] = new double[capacity * METRICS];
+        }
+        return sums[series];
+    }
+
+    /**
+     * {@code values[i][metric]} holds the first {@code size} points of the i-th requested
+     * series.
+     */
+    record Points(long[] timestamps, double[][][] values, int size) {
+
+        double[] metric(int series, int metric) {
+            return Arrays.copyOf(values[series][metric], size);
+        }
+    }
+}
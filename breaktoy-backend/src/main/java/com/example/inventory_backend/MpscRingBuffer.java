@@ -0,0 +1,85 @@
+package com.example.inventory_backend;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer (Vyukov's array queue).
+ * Each slot carries a sequence number: producers claim a position with one CAS on the
+ * tail and publish the element by advancing the slot's sequence, and the consumer frees
+ * the slot by advancing it again by the capacity. {@link #offer} never blocks and returns
+ * false when the buffer is full.
+ */
+final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Written by the consumer only; atomic so size() can read it from other threads
+    private final AtomicLong head = new AtomicLong();
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+        elements = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    boolean offer(E element) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long available = sequences.getAcquire(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                return false; // the consumer has not freed this slot yet: full
+            }
+            // otherwise another producer claimed the position first, retry with the new tail
+        }
+        elements.setPlain(index, element);
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Moves up to {@code max} elements, oldest first, into {@code target}. Consumer thread only.
+     */
+    int drainTo(List<? super E> target, int max) {
+        long position = head.getPlain();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            target.add(elements.getPlain(index));
+            elements.setPlain(index, null);
+            sequences.setRelease(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head.setRelease(position);
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.getAcquire());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -6,9 +6,18 @@ import java.time.LocalDate;
 import jakarta.persistence.*;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_expiration", columnList = "expiration_date, id"),
+        @Index(name = "idx_product_category_expiration", columnList = "category, expiration_date"),
+        @Index(name = "idx_product_name", columnList = "name"),
+        @Index(name = "idx_product_quantity", columnList = "quantity_in_stock")
+})
+@EntityListeners(EntityLoadCounter.class)
 public class Product {
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts, e.g. for bulk imports
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is required")
@@ -30,6 +39,9 @@ public class Product {
     private LocalDate createdAt;
     private LocalDate updatedAt;
 
+    @Version
+    private Long version;
+
     public Product() {
         // Empty constructor required for Jackson and Spring
     }
@@ -58,4 +70,7 @@ public class Product {
 
     public LocalDate getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDate updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,37 @@
+package com.example.inventory_backend;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/products")
+@CrossOrigin(origins = "http://localhost:8080")
+public class ProductBulkController {
+
+    private final ProductBulkService productBulkService;
+
+    public ProductBulkController(ProductBulkService productBulkService) {
+        this.productBulkService = productBulkService;
+    }
+
+    // POST /products/bulk - JSON array or NDJSON stream, parsed incrementally
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkImportResult importProducts(HttpServletRequest request) throws IOException {
+        return productBulkService.importProducts(request.getInputStream());
+    }
+
+    // GET /products/export - NDJSON, streamed from a scrolled result set
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(productBulkService::exportProducts);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.inventory_backend;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Streaming bulk import and export of products. Imports are parsed one record at a time
+ * and written in JDBC batches of {@code inventory.bulk.batch-size} rows, one transaction
+ * per batch; exports write rows as they are scrolled from the database.
+ */
+@Service
+public class ProductBulkService {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductRepository productRepository;
+    private final int batchSize;
+
+    public ProductBulkService(ObjectMapper objectMapper,
+                              Validator validator,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              ProductRepository productRepository,
+                              @Value("${inventory.bulk.batch-size:500}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.productRepository = productRepository;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Imports either a JSON array of products or a stream of newline-delimited products.
+     * Invalid rows are reported and skipped; a syntax error stops the import at that point.
+     */
+    public BulkImportResult importProducts(InputStream input) throws IOException {
+        List<BulkImportResult.RowError> errors = new ArrayList<>();
+        List<Product> batch = new ArrayList<>(batchSize);
+        List<Integer> batchRows = new ArrayList<>(batchSize);
+        int received = 0;
+        int imported = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                received++;
+                JsonNode node;
+                try {
+                    node = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    // Malformed JSON: the parser cannot resynchronise, so stop here
+                    errors.add(new BulkImportResult.RowError(received, Map.of("row", e.getOriginalMessage())));
+                    break;
+                }
+                try {
+                    Product product = objectMapper.treeToValue(node, Product.class);
+                    Map<String, String> violations = validate(product);
+                    if (violations.isEmpty()) {
+                        batch.add(product);
+                        batchRows.add(received);
+                    } else {
+                        errors.add(new BulkImportResult.RowError(received, violations));
+                    }
+                } catch (JsonProcessingException e) {
+                    errors.add(new BulkImportResult.RowError(received, Map.of("row", e.getOriginalMessage())));
+                }
+                if (batch.size() == batchSize) {
+                    imported += flush(batch, batchRows, errors);
+                }
+                token = parser.nextToken();
+            }
+        }
+        imported += flush(batch, batchRows, errors);
+        return new BulkImportResult(received, imported, errors);
+    }
+
+    /**
+     * Writes every product as one JSON document per line, without materialising the table.
+     */
+    public void exportProducts(OutputStream output) throws IOException {
+        SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(output);
+        AtomicBoolean wroteAny = new AtomicBoolean();
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Product> products = productRepository.streamAll()) {
+                products.forEach(product -> {
+                    try {
+                        writer.write(product);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Export aborted", e);
+                    }
+                    wroteAny.set(true);
+                    entityManager.detach(product);
+                });
+            }
+        });
+        writer.flush();
+        // The separator only goes between rows; an empty table stays an empty body
+        if (wroteAny.get()) {
+            output.write('\n');
+        }
+    }
+
+    private int flush(List<Product> batch, List<Integer> batchRows, List<BulkImportResult.RowError> errors) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int written;
+        try {
+            persist(batch);
+            written = batch.size();
+        } catch (RuntimeException batchFailure) {
+            // Isolate the offending rows by retrying the batch one row per transaction
+            written = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Product product = batch.get(i);
+                product.setId(null);
+                try {
+                    persist(List.of(product));
+                    written++;
+                } catch (RuntimeException rowFailure) {
+                    errors.add(new BulkImportResult.RowError(batchRows.get(i),
+                            Map.of("row", String.valueOf(NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()))));
+                }
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+        return written;
+    }
+
+    private void persist(List<Product> products) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDate today = LocalDate.now();
+            for (Product product : products) {
+                product.setId(null);
+                product.setVersion(null);
+                product.setCreatedAt(today);
+                product.setUpdatedAt(today);
+                entityManager.persist(product);
+            }
+            entityManager.flush();
+            for (Product product : products) {
+                eventPublisher.publishEvent(ProductChangeEvent.created(product));
+            }
+            entityManager.clear();
+        });
+    }
+
+    private Map<String, String> validate(Product product) {
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<Product> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+}
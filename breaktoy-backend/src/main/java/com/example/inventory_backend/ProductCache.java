@@ -0,0 +1,113 @@
+package com.example.inventory_backend;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache (Caffeine, W-TinyLFU eviction) for single products and for
+ * the first pages of listing queries. Every committed {@link ProductChangeEvent} evicts
+ * the product and drops all cached listings.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, Product> products;
+    private final Cache<ListingKey, Page<Product>> listings;
+    private final int maxCachedPage;
+
+    // Bumped on every write; a value loaded across a write is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCache(@Value("${inventory.cache.products.max-size:10000}") long productsMaxSize,
+                        @Value("${inventory.cache.products.ttl:5m}") Duration productsTtl,
+                        @Value("${inventory.cache.listings.max-size:1000}") long listingsMaxSize,
+                        @Value("${inventory.cache.listings.ttl:30s}") Duration listingsTtl,
+                        @Value("${inventory.cache.listings.max-page:3}") int maxCachedPage) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(productsMaxSize)
+                .expireAfterWrite(productsTtl)
+                .recordStats()
+                .build();
+        this.listings = Caffeine.newBuilder()
+                .maximumSize(listingsMaxSize)
+                .expireAfterWrite(listingsTtl)
+                .recordStats()
+                .build();
+        this.maxCachedPage = maxCachedPage;
+    }
+
+    public Optional<Product> getProduct(Long id, Supplier<Optional<Product>> loader) {
+        Product cached = products.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long observed = generation.get();
+        Optional<Product> loaded = loader.get();
+        if (loaded.isPresent() && generation.get() == observed) {
+            products.put(id, loaded.get());
+        }
+        return loaded;
+    }
+
+    /**
+     * Stale and joined results from {@link ReadAdmission} are returned but not cached: they
+     * may predate a write that the current generation already covers.
+     */
+    public Page<Product> getListing(ListingKey key, Supplier<ReadAdmission.Result<Page<Product>>> loader) {
+        if (key.page() >= maxCachedPage) {
+            return loader.get().value();
+        }
+        Page<Product> cached = listings.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long observed = generation.get();
+        ReadAdmission.Result<Page<Product>> loaded = loader.get();
+        if (loaded.fresh() && generation.get() == observed) {
+            listings.put(key, loaded.value());
+        }
+        return loaded.value();
+    }
+
+    // After the name index and the snapshot: bumped before them, a concurrent listing could be
+    // built from the old index and cached under the new generation. Before the event stream,
+    // so subscribers that refetch on an event do not get the old page from the cache
+    @Order(5)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        generation.incrementAndGet();
+        products.invalidate(event.productId());
+        listings.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("products", describe(products));
+        stats.put("listings", describe(listings));
+        return stats;
+    }
+
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", cache.estimatedSize());
+        description.put("hitCount", stats.hitCount());
+        description.put("missCount", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("evictionCount", stats.evictionCount());
+        return description;
+    }
+}
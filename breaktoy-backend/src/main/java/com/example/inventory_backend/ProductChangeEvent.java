@@ -0,0 +1,43 @@
+package com.example.inventory_backend;
+
+/**
+ * Published by {@link ProductService} for every committed mutation. {@code before} is null
+ * for creations and {@code after} is null for deletions. {@code origin} is null for local
+ * changes and holds the id of the peer node for changes replayed by {@link ClusterCoordinator}.
+ */
+public record ProductChangeEvent(Type type, ProductState before, ProductState after, String origin) {
+
+    public enum Type { CREATED, UPDATED, DELETED, STOCK_CHANGED }
+
+    public ProductChangeEvent(Type type, ProductState before, ProductState after) {
+        this(type, before, after, null);
+    }
+
+    public static ProductChangeEvent created(Product product) {
+        return new ProductChangeEvent(Type.CREATED, null, ProductState.of(product));
+    }
+
+    public static ProductChangeEvent updated(ProductState before, Product product) {
+        return new ProductChangeEvent(Type.UPDATED, before, ProductState.of(product));
+    }
+
+    public static ProductChangeEvent stockChanged(ProductState before, Product product) {
+        return new ProductChangeEvent(Type.STOCK_CHANGED, before, ProductState.of(product));
+    }
+
+    public static ProductChangeEvent deleted(ProductState before) {
+        return new ProductChangeEvent(Type.DELETED, before, null);
+    }
+
+    public Long productId() {
+        return after != null ? after.id() : before.id();
+    }
+
+    public boolean isRemote() {
+        return origin != null;
+    }
+
+    public ProductChangeEvent fromNode(String nodeId) {
+        return new ProductChangeEvent(type, before, after, nodeId);
+    }
+}
@@ -1,71 +1,55 @@
 package com.example.inventory_backend;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-
-import java.util.concurrent.atomic.AtomicLong;
-
-import java.util.Comparator;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import java.time.LocalDate;
-
+import java.util.Set;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/products")
-@CrossOrigin(origins = "http://localhost:8080")
+@CrossOrigin(origins = "http://localhost:8080",
+        exposedHeaders = {ProductController.TOTAL_COUNT_HEADER, ProductController.NEXT_CURSOR_HEADER})
 public class ProductController {
 
-
-    private List<Product> productList = new ArrayList<>();
-
-    private final InventoryMetricsService inventoryMetricsService;
-
-    public ProductController(InventoryMetricsService inventoryMetricsService) {
-        this.inventoryMetricsService = inventoryMetricsService;
-    }
-
-    private final AtomicLong idGenerator = new AtomicLong();
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
 
     private final ProductService productService;
+    private final StockAdjustmentBuffer stockAdjustmentBuffer;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, StockAdjustmentBuffer stockAdjustmentBuffer) {
         this.productService = productService;
+        this.stockAdjustmentBuffer = stockAdjustmentBuffer;
     }
 
 
     @PostMapping
     public Product createProduct(@Valid @RequestBody Product product) {
-
-        long newId = idGenerator.incrementAndGet();
-
         return productService.createProduct(product);
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<?> updateProduct(@PathVariable Long id, @Valid @RequestBody Product updatedProduct) {
-        return productService.updateProduct(id, updatedProduct)
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
-
-        long newId = productService.getProductList().size() + 1;
-
-        product.setId(newId);
-        product.setCreatedAt(java.time.LocalDate.now());
-        product.setUpdatedAt(java.time.LocalDate.now());
-        productService.getProductList().add(product);
-        return product;
-    }
-
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
         return productService.findById(id)
@@ -75,204 +59,245 @@ public class ProductController {
 
     // PUT /products/{id} - To find a product and edit it :D
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateProduct(
-            @PathVariable Long id,
-            @Valid @RequestBody Product updatedProduct) {
-
-        // Search for the product by ID
-        for (Product product : productService.getProductList()) {
-            if (product.getId().equals(id)) {
-                // Update the allowed fields
-                product.setName(updatedProduct.getName());
-                product.setCategory(updatedProduct.getCategory());
-                product.setUnitPrice(updatedProduct.getUnitPrice());
-                product.setQuantityInStock(updatedProduct.getQuantityInStock());
-                product.setExpirationDate(updatedProduct.getExpirationDate());
-                product.setUpdatedAt(java.time.LocalDate.now());
-                return ResponseEntity.ok(product);
-            }
-        }
-
-        // If not found, return 404
-        return ResponseEntity.notFound().build();
-
+    public ResponseEntity<?> updateProduct(@PathVariable Long id, @Valid @RequestBody Product updatedProduct) {
+        return productService.updateProduct(id, updatedProduct)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
-
         boolean deleted = productService.deleteProduct(id);
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
-
-        for (Product product : productService.getProductList()) {
-            if (product.getId().equals(id)) {
-                productService.getProductList().remove(product);
-                return ResponseEntity.noContent().build(); // 204 No Content
-            }
-        }
-        return ResponseEntity.notFound().build();
-
     }
 
     @PutMapping("/{id}/instock")
-
     public ResponseEntity<?> markProductInStock(@PathVariable Long id,
                                                  @RequestParam(defaultValue = "10") Integer quantity) {
         return productService.markProductInStock(id, quantity)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
-
-    public ResponseEntity<?> markProductInStock(
-            @PathVariable Long id,
-            @RequestParam(defaultValue = "10") Integer quantity) {
-        for (Product product : productService.getProductList()) {
-            if (product.getId().equals(id)) {
-                product.setQuantityInStock(quantity);
-                product.setUpdatedAt(java.time.LocalDate.now());
-                return ResponseEntity.ok(product);
-            }
-        }
-        return ResponseEntity.notFound().build();
-
     }
 
     @PostMapping("/{id}/outofstock")
     public ResponseEntity<?> markProductOutOfStock(@PathVariable Long id) {
-
         return productService.markProductOutOfStock(id)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        for (Product product : productService.getProductList()) {
-            if (product.getId().equals(id)) {
-                product.setQuantityInStock(0);
-                product.setUpdatedAt(java.time.LocalDate.now());
-                return ResponseEntity.ok(product);
-            }
+    // POST /products/{id}/stock/adjust?delta=N - atomic relative change; 202 when coalescing is on
+    @PostMapping("/{id}/stock/adjust")
+    public ResponseEntity<?> adjustStock(@PathVariable Long id, @RequestParam int delta) {
+        if (stockAdjustmentBuffer.isEnabled()) {
+            stockAdjustmentBuffer.submit(id, delta);
+            return ResponseEntity.accepted().build();
         }
-        return ResponseEntity.notFound().build();
+        return productService.adjustStock(id, delta)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // POST /products/stock/batch - [{id, quantity | delta | outOfStock}], one result per operation
+    @PostMapping("/stock/batch")
+    public StockBatchResult applyStockOperations(@RequestBody List<StockOperation> operations) {
+        return productService.applyStockOperations(operations);
+    }
 
+    @GetMapping("/stock/coalescing/stats")
+    public Map<String, Long> getStockCoalescingStats() {
+        return stockAdjustmentBuffer.stats();
     }
 
+    // GET /products/metrics - answers a matching If-None-Match with 304 before computing anything
     @GetMapping("/metrics")
-    public Map<String, Object> getInventoryMetrics() {
-
-        Map<String, Object> metrics = inventoryMetricsService.computeGlobalMetrics(productList);
-        metrics.put("byCategory", inventoryMetricsService.computeByCategory(productList));
-
-        return productService.getInventoryMetrics();
-
-        Map<String, Object> metrics = new HashMap<>();
-
-        // General metrics
-        int totalStock = productService.getProductList().stream()
-                .filter(p -> p.getQuantityInStock() != null)
-                .mapToInt(Product::getQuantityInStock)
-                .sum();
-
-        double totalValue = productService.getProductList().stream()
-                .filter(p -> p.getUnitPrice() != null && p.getQuantityInStock() != null)
-                .mapToDouble(p -> p.getUnitPrice() * p.getQuantityInStock())
-                .sum();
-
-        double avgPrice = productService.getProductList().stream()
-                .filter(p -> p.getQuantityInStock() != null && p.getQuantityInStock() > 0 && p.getUnitPrice() != null)
-                .mapToDouble(Product::getUnitPrice)
-                .average().orElse(0);
-
-        metrics.put("totalStock", totalStock);
-        metrics.put("totalValue", totalValue);
-        metrics.put("avgPrice", avgPrice);
-
-        // Metrics by category
-        Map<String, Map<String, Object>> byCategory = new HashMap<>();
-        productService.getProductList().stream()
-                .filter(p -> p.getCategory() != null)
-                .collect(Collectors.groupingBy(Product::getCategory))
-                .forEach((cat, products) -> {
-                    int catTotalStock = products.stream()
-                            .filter(p -> p.getQuantityInStock() != null)
-                            .mapToInt(Product::getQuantityInStock)
-                            .sum();
-                    double catTotalValue = products.stream()
-                            .filter(p -> p.getUnitPrice() != null && p.getQuantityInStock() != null)
-                            .mapToDouble(p -> p.getUnitPrice() * p.getQuantityInStock())
-                            .sum();
-                    double catAvgPrice = products.stream()
-                            .filter(p -> p.getQuantityInStock() != null && p.getQuantityInStock() > 0 && p.getUnitPrice() != null)
-                            .mapToDouble(Product::getUnitPrice)
-                            .average().orElse(0);
-
-                    Map<String, Object> catMetrics = new HashMap<>();
-                    catMetrics.put("totalStock", catTotalStock);
-                    catMetrics.put("totalValue", catTotalValue);
-                    catMetrics.put("avgPrice", catAvgPrice);
-
-                    byCategory.put(cat, catMetrics);
-                });
-        metrics.put("byCategory", byCategory);
-
-        return metrics;
+    public ResponseEntity<InventoryMetricsSnapshot> getInventoryMetrics(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = productService.getInventoryMetricsEtag();
+        if (etag != null && ifNoneMatch != null && matchesAny(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        ReadAdmission.Result<InventoryMetricsSnapshot> read = productService.readInventoryMetrics();
+        InventoryMetricsSnapshot metrics = read.value();
+        if (read.stale()) {
+            // An earlier snapshot served under overload; untagged so clients do not keep it as current
+            return ResponseEntity.ok().header(HttpHeaders.WARNING, STALE_WARNING)
+                    .cacheControl(CacheControl.noCache()).body(metrics);
+        }
+        // Tagged from the body's own version, which a write after the check above may have moved on
+        String tag = productService.getInventoryMetricsEtag(metrics);
+        if (tag == null) {
+            return ResponseEntity.ok(metrics);
+        }
+        return ResponseEntity.ok().eTag(tag).cacheControl(CacheControl.noCache()).body(metrics);
+    }
 
+    // GET /products/metrics/history?from=...&to=...&step=5m - sampled metrics over time (default: the last hour),
+    // served from in-memory buckets; `category` limits the per-category series
+    @GetMapping("/metrics/history")
+    public MetricsHistory getInventoryMetricsHistory(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                     @RequestParam(required = false) String step,
+                                                     @RequestParam(required = false) List<String> category) {
+        Instant end = to != null ? to : Instant.now();
+        return productService.getInventoryMetricsHistory(from != null ? from : end.minus(Duration.ofHours(1)), end,
+                parseStep(step), category);
     }
 
-    @GetMapping
+    @GetMapping("/metrics/history/stats")
+    public Map<String, Object> getMetricsHistoryStats() {
+        return productService.getMetricsHistoryStats();
+    }
 
-    public List<Product> getAllProducts(@RequestParam(required = false) String name,
-                                        @RequestParam(required = false) List<String> category,
-                                        @RequestParam(required = false) Boolean inStock,
-                                        @RequestParam(required = false) String sortBy,
-                                        @RequestParam(required = false) String sortBy2,
-                                        @RequestParam(required = false, defaultValue = "asc") String order,
-                                        @RequestParam(required = false, defaultValue = "asc") String order2,
-                                        @RequestParam(required = false, defaultValue = "0") int page,
-                                        @RequestParam(required = false, defaultValue = "10") int size) {
-        return productService.getAllProducts(name, category, inStock, sortBy, sortBy2, order, order2, page, size);
-
-    public List<Product> getAllProducts(
-            @RequestParam(required = false) String name,
-            @RequestParam(required = false) List<String> category,
-            @RequestParam(required = false) Boolean inStock,
-            @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false) String sortBy2,
-            @RequestParam(required = false, defaultValue = "asc") String order,
-            @RequestParam(required = false, defaultValue = "asc") String order2,
-            @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size
-    ) {
-        // 1. Filtering
-        Stream<Product> stream = productService.getProductList().stream();
-
-        if (name != null && !name.isEmpty()) {
-            stream = stream.filter(p -> p.getName() != null && p.getName().toLowerCase().contains(name.toLowerCase()));
+    // Accepts both "15m" and ISO-8601 ("PT15M")
+    static Duration parseStep(String step) {
+        if (step == null || step.isBlank()) {
+            return null;
         }
-        if (category != null && !category.isEmpty()) {
-            stream = stream.filter(p -> category.contains(p.getCategory()));
-        }
-        if (inStock != null) {
-            stream = stream.filter(p -> inStock ? p.getQuantityInStock() > 0 : p.getQuantityInStock() == 0);
+        try {
+            return DurationStyle.detectAndParse(step);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMetricsRangeException("Invalid step: " + step);
         }
+    }
 
-        // 2. Sorting (you can sort by up to 2 fields)
-        Comparator<Product> comparator = null;
-        if (sortBy != null) {
-            comparator = getComparator(sortBy, order);
+    // If-None-Match uses weak comparison, so W/"x" matches "x"
+    static boolean matchesAny(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
         }
-        if (sortBy2 != null) {
-            Comparator<Product> secondaryComparator = getComparator(sortBy2, order2);
-            comparator = comparator == null ? secondaryComparator : comparator.thenComparing(secondaryComparator);
+        return false;
+    }
+
+    @GetMapping("/search/stats")
+    public Map<String, Object> getNameIndexStats() {
+        return productService.getNameIndexStats();
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        return productService.getCacheStats();
+    }
+
+    @GetMapping("/snapshot/stats")
+    public Map<String, Object> getSnapshotStats() {
+        return productService.getSnapshotStats();
+    }
+
+    @GetMapping("/jdbc/stats")
+    public Map<String, Object> getJdbcStats() {
+        return productService.getJdbcStats();
+    }
+
+    @GetMapping("/cluster/stats")
+    public Map<String, Object> getClusterStats() {
+        return productService.getClusterStats();
+    }
+
+    @GetMapping("/admission/stats")
+    public Map<String, Object> getAdmissionStats() {
+        return productService.getAdmissionStats();
+    }
+
+    // GET /products - filtering, sorting (up to 2 fields) and pagination (page starts at 0).
+    // Passing `cursor` (empty for the first page) switches to keyset paging; the token for the
+    // next page comes back in the X-Next-Cursor header. `fields` (comma-separated) trims each
+    // row down to the listed properties. `facets=true` wraps the rows as {content, facets}
+    // with per-category and in/out-of-stock counts for the filter.
+    @GetMapping
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String name,
+                                            @RequestParam(required = false) List<String> category,
+                                            @RequestParam(required = false) Boolean inStock,
+                                            @RequestParam(required = false) String sortBy,
+                                            @RequestParam(required = false) String sortBy2,
+                                            @RequestParam(required = false, defaultValue = "asc") String order,
+                                            @RequestParam(required = false, defaultValue = "asc") String order2,
+                                            @RequestParam(required = false, defaultValue = "0") int page,
+                                            @RequestParam(required = false, defaultValue = "10") int size,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestParam(defaultValue = "false") boolean facets) {
+        Set<ProductProjection.Field> projection = fields != null ? ProductProjection.parseFields(fields) : null;
+        if (cursor != null) {
+            CursorPage result = productService.getProductsAfter(name, category, inStock, sortBy, sortBy2, order, order2, cursor, size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (result.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, result.nextCursor());
+            }
+            Object body = project(result.content(), projection);
+            return response.body(facets ? withFacets(body, productService.getListingFacets(name, category, inStock)) : body);
         }
-        if (comparator != null) {
-            stream = stream.sorted(comparator);
+        if (facets) {
+            FacetedPage result = productService.getFacetedProducts(name, category, inStock, sortBy, sortBy2, order, order2, page, size);
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT_HEADER, String.valueOf(result.page().getTotalElements()))
+                    .body(withFacets(project(result.page().getContent(), projection), result.facets()));
         }
+        Page<Product> result = productService.getAllProducts(name, category, inStock, sortBy, sortBy2, order, order2, page, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.getTotalElements()))
+                .body(project(result.getContent(), projection));
+    }
+
+    private static Object project(List<Product> content, Set<ProductProjection.Field> projection) {
+        return projection == null ? content : new ProductProjection(content, projection);
+    }
+
+    private static Map<String, Object> withFacets(Object content, ListingFacets facets) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("content", content);
+        body.put("facets", facets);
+        return body;
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidFields(InvalidFieldsException ex) {
+        return ResponseEntity.badRequest().body(Map.of("fields", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidMetricsRangeException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidMetricsRange(InvalidMetricsRangeException ex) {
+        return ResponseEntity.badRequest().body(Map.of("range", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity.badRequest().body(Map.of("cursor", ex.getMessage()));
+    }
 
-        // 3. Pagination (page starts at 0)
-        List<Product> filteredList = stream.collect(Collectors.toList());
-        int fromIndex = page * size;
-        int toIndex = Math.min(fromIndex + size, filteredList.size());
-        if (fromIndex > toIndex) return new ArrayList<>();
-        return filteredList.subList(fromIndex, toIndex);
+    @ExceptionHandler(InvalidStockBatchException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidStockBatch(InvalidStockBatchException ex) {
+        return ResponseEntity.badRequest().body(Map.of("operations", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Map<String, String>> handleInsufficientStock(InsufficientStockException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("quantityInStock", ex.getMessage()));
+    }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("version", "Product was modified concurrently, reload it and retry"));
+    }
+
+    // Connection limit reached and the wait timed out: tell the client to back off
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, String>> handleDatabaseBusy(CannotCreateTransactionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("database", "Too many concurrent requests, retry shortly"));
+    }
+
+    // Expensive reads are saturated and no earlier result was kept for this request
+    @ExceptionHandler(ServerBusyException.class)
+    public ResponseEntity<Map<String, String>> handleServerBusy(ServerBusyException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("server", ex.getMessage()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -286,4 +311,3 @@ public class ProductController {
         return ResponseEntity.badRequest().body(errors);
     }
 }
-
@@ -0,0 +1,130 @@
+package com.example.inventory_backend;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Continuation token for keyset pagination: the sort keys of the last row of a page plus
+ * its id as tiebreaker. It also records the sort it was issued for, so a token cannot be
+ * replayed against a different ordering.
+ */
+public record ProductCursor(String sortBy, boolean desc, String key,
+                            String sortBy2, boolean desc2, String key2,
+                            long id) {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Builds the cursor pointing just past {@code last} for the given (already resolved) sort.
+     */
+    public static ProductCursor after(Product last, String sortBy, String order, String sortBy2, String order2) {
+        String attribute = sortBy == null ? null : ProductSpecifications.sortAttribute(sortBy);
+        String attribute2 = sortBy2 == null ? null : ProductSpecifications.sortAttribute(sortBy2);
+        return new ProductCursor(attribute, ProductSpecifications.isDescending(order), keyOf(last, attribute),
+                attribute2, ProductSpecifications.isDescending(order2), keyOf(last, attribute2),
+                last.getId());
+    }
+
+    public boolean matches(String sortBy, String order, String sortBy2, String order2) {
+        return Objects.equals(this.sortBy, sortBy == null ? null : ProductSpecifications.sortAttribute(sortBy))
+                && (this.sortBy == null || desc == ProductSpecifications.isDescending(order))
+                && Objects.equals(this.sortBy2, sortBy2 == null ? null : ProductSpecifications.sortAttribute(sortBy2))
+                && (this.sortBy2 == null || desc2 == ProductSpecifications.isDescending(order2));
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeNullable(out, sortBy);
+            out.writeBoolean(desc);
+            writeNullable(out, key);
+            writeNullable(out, sortBy2);
+            out.writeBoolean(desc2);
+            writeNullable(out, key2);
+            out.writeLong(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static ProductCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != FORMAT_VERSION) {
+                throw new InvalidCursorException("Unsupported cursor version");
+            }
+            ProductCursor cursor = new ProductCursor(readNullable(in), in.readBoolean(), readNullable(in),
+                    readNullable(in), in.readBoolean(), readNullable(in), in.readLong());
+            if (in.available() > 0) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            cursor.validate();
+            return cursor;
+        } catch (IOException | RuntimeException e) {
+            throw e instanceof InvalidCursorException ice ? ice : new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    /**
+     * Parses a stored key back into the Java type of its attribute. Returns null for null keys.
+     */
+    static Comparable<?> parseKey(String attribute, String key) {
+        if (key == null) {
+            return null;
+        }
+        return switch (attribute) {
+            case "name", "category" -> key;
+            case "unitPrice" -> Double.valueOf(key);
+            case "quantityInStock" -> Integer.valueOf(key);
+            case "expirationDate" -> LocalDate.parse(key);
+            default -> Long.valueOf(key);
+        };
+    }
+
+    private static String keyOf(Product product, String attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        Object value = switch (attribute) {
+            case "name" -> product.getName();
+            case "category" -> product.getCategory();
+            case "unitPrice" -> product.getUnitPrice();
+            case "quantityInStock" -> product.getQuantityInStock();
+            case "expirationDate" -> product.getExpirationDate();
+            default -> product.getId();
+        };
+        return value == null ? null : value.toString();
+    }
+
+    private void validate() {
+        if (sortBy != null && !sortBy.equals(ProductSpecifications.sortAttribute(sortBy))
+                || sortBy2 != null && !sortBy2.equals(ProductSpecifications.sortAttribute(sortBy2))) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (sortBy != null) {
+            parseKey(sortBy, key);
+        }
+        if (sortBy2 != null) {
+            parseKey(sortBy2, key2);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
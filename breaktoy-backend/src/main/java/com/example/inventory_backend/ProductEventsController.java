@@ -0,0 +1,32 @@
+package com.example.inventory_backend;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/products")
+@CrossOrigin(origins = "http://localhost:8080")
+public class ProductEventsController {
+
+    private final InventoryEventStream inventoryEventStream;
+
+    public ProductEventsController(InventoryEventStream inventoryEventStream) {
+        this.inventoryEventStream = inventoryEventStream;
+    }
+
+    // GET /products/events - server-sent "inventory" events for every committed change
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return inventoryEventStream.subscribe();
+    }
+
+    @GetMapping("/events/stats")
+    public Map<String, Long> getEventStats() {
+        return inventoryEventStream.stats();
+    }
+}
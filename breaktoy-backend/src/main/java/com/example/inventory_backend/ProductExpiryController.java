@@ -0,0 +1,53 @@
+package com.example.inventory_backend;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/products/expiring")
+@CrossOrigin(origins = "http://localhost:8080", exposedHeaders = ProductController.NEXT_CURSOR_HEADER)
+public class ProductExpiryController {
+
+    private final ProductService productService;
+    private final ExpiringStockReport expiringStockReport;
+
+    public ProductExpiryController(ProductService productService, ExpiringStockReport expiringStockReport) {
+        this.productService = productService;
+        this.expiringStockReport = expiringStockReport;
+    }
+
+    // GET /products/expiring?days=N - soonest first, keyset paged like GET /products?cursor=
+    @GetMapping
+    public ResponseEntity<List<Product>> getExpiringProducts(@RequestParam(defaultValue = "7") int days,
+                                                             @RequestParam(required = false) List<String> category,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        CursorPage result = productService.getExpiringProducts(days, category, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.nextCursor() != null) {
+            response.header(ProductController.NEXT_CURSOR_HEADER, result.nextCursor());
+        }
+        return response.body(result.content());
+    }
+
+    // GET /products/expiring/summary?days=N - precomputed per-category and per-day buckets
+    @GetMapping("/summary")
+    public Map<String, Object> getExpiringSummary(@RequestParam(defaultValue = "7") int days) {
+        return expiringStockReport.summary(days);
+    }
+
+    @ExceptionHandler(InvalidExpiryWindowException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidDays(InvalidExpiryWindowException ex) {
+        return ResponseEntity.badRequest().body(Map.of("days", ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity.badRequest().body(Map.of("cursor", ex.getMessage()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.inventory_backend;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/products/history")
+@CrossOrigin(origins = "http://localhost:8080")
+public class ProductHistoryController {
+
+    private final ProductHistoryLog historyLog;
+
+    public ProductHistoryController(ProductHistoryLog historyLog) {
+        this.historyLog = historyLog;
+    }
+
+    // GET /products/history/{id}?from=...&to=... - logged changes of one product, oldest first
+    @GetMapping("/{id}")
+    public List<ProductHistoryEntry> getHistory(@PathVariable Long id,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                @RequestParam(defaultValue = "100") int limit) {
+        return historyLog.history(id, from != null ? from : Instant.EPOCH, to != null ? to : Instant.now(),
+                Math.clamp(limit, 1, 1000));
+    }
+
+    // GET /products/history/{id}/at?time=2025-01-31T10:00:00Z - the product's state at that instant
+    @GetMapping("/{id}/at")
+    public ResponseEntity<ProductHistoryEntry> getStateAt(@PathVariable Long id,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant time) {
+        return historyLog.stateAt(id, time)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // GET /products/history/stock?time=... - stock per category at that instant
+    @GetMapping("/stock")
+    public Map<String, Object> getStockAt(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant time) {
+        return historyLog.stockByCategoryAt(time);
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return historyLog.stats();
+    }
+}
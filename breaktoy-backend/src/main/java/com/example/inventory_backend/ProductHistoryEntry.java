@@ -0,0 +1,69 @@
+package com.example.inventory_backend;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * One row of the append-only change log: the product's stock and category after a
+ * change, the stock delta it applied and when it was committed. Deletions keep the last
+ * category and have no stock.
+ */
+@Entity
+@Table(name = "product_history", indexes = {
+        @Index(name = "idx_product_history_product", columnList = "product_id, changed_at"),
+        @Index(name = "idx_product_history_changed", columnList = "changed_at")
+})
+public class ProductHistoryEntry {
+
+    // Large pooled allocation: the writer inserts in batches of hundreds
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_history_seq")
+    @SequenceGenerator(name = "product_history_seq", sequenceName = "product_history_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Plain VARCHAR rather than the native ENUM Hibernate would pick on H2, matching the migration
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 16, nullable = false)
+    private ProductChangeEvent.Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    private String category;
+    private Integer quantityInStock;
+    private int quantityDelta;
+
+    protected ProductHistoryEntry() {
+        // For JPA
+    }
+
+    ProductHistoryEntry(ProductChangeEvent event, Instant changedAt) {
+        ProductState after = event.after();
+        ProductState before = event.before();
+        this.productId = event.productId();
+        this.type = event.type();
+        this.changedAt = changedAt;
+        this.category = after != null ? after.category() : before.category();
+        this.quantityInStock = after != null ? after.quantityInStock() : null;
+        this.quantityDelta = quantity(after) - quantity(before);
+    }
+
+    private static int quantity(ProductState state) {
+        return state == null || state.quantityInStock() == null ? 0 : state.quantityInStock();
+    }
+
+    public Long getId() { return id; }
+    public Long getProductId() { return productId; }
+    public ProductChangeEvent.Type getType() { return type; }
+    public Instant getChangedAt() { return changedAt; }
+    public String getCategory() { return category; }
+    public Integer getQuantityInStock() { return quantityInStock; }
+    public int getQuantityDelta() { return quantityDelta; }
+}
@@ -0,0 +1,186 @@
+package com.example.inventory_backend;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind history of product changes. Each committed local change becomes one
+ * {@link ProductHistoryEntry} offered to a lock-free ring buffer, which is all the writing
+ * thread pays. A single background writer drains the buffer in batches of up to
+ * {@code inventory.history.batch-size} into the append-only {@code product_history} table,
+ * sleeping {@code inventory.history.flush-interval} whenever less than a full batch was
+ * waiting. When the buffer is full, entries are dropped and counted rather than slowing
+ * down writes. Reads therefore lag commits by up to one flush interval.
+ * <p>
+ * Changes replayed from peers are not logged again, as the node that made them logs them
+ * to the shared database itself.
+ */
+@Component
+public class ProductHistoryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductHistoryLog.class);
+
+    private final ProductHistoryRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final MpscRingBuffer<ProductHistoryEntry> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    // LongAdders on the producer side, so concurrent writers do not contend on one counter
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ProductHistoryLog(ProductHistoryRepository repository,
+                             PlatformTransactionManager transactionManager,
+                             Clock clock,
+                             @Value("${inventory.history.enabled:true}") boolean enabled,
+                             @Value("${inventory.history.buffer-capacity:65536}") int capacity,
+                             @Value("${inventory.history.batch-size:500}") int batchSize,
+                             @Value("${inventory.history.flush-interval:100ms}") Duration flushInterval) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.enabled = enabled;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            running = true;
+            writer = Thread.ofPlatform().name("inventory-history").daemon().start(this::drainLoop);
+        }
+    }
+
+    // Lets the writer store whatever is still buffered before the context closes
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(Duration.ofSeconds(10));
+        }
+    }
+
+    @Order(30)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (!enabled || event.isRemote()) {
+            return;
+        }
+        if (buffer.offer(new ProductHistoryEntry(event, clock.instant()))) {
+            enqueued.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<ProductHistoryEntry> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            int drained = drainBatch(batch);
+            if (drained < batchSize && running) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+    }
+
+    private int drainBatch(List<ProductHistoryEntry> batch) {
+        int drained = buffer.drainTo(batch, batchSize);
+        if (drained > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+                written.addAndGet(drained);
+                batches.incrementAndGet();
+            } catch (RuntimeException e) {
+                failed.addAndGet(drained);
+                log.error("Dropped a batch of {} history entries", drained, e);
+            }
+            batch.clear();
+        }
+        return drained;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductHistoryEntry> history(Long productId, Instant from, Instant to, int limit) {
+        return repository.findChanges(productId, from, to, Limit.of(limit));
+    }
+
+    /**
+     * The product's last logged entry at or before {@code at}; empty when nothing was
+     * logged for it by then.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ProductHistoryEntry> stateAt(Long productId, Instant at) {
+        return repository.findLatest(productId, at, Limit.of(1)).stream().findFirst();
+    }
+
+    /**
+     * Products and stock per category as they stood at {@code at}, reconstructed from the
+     * log. Only products changed since the log was enabled are covered.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> stockByCategoryAt(Instant at) {
+        Map<String, Map<String, Long>> byCategory = new TreeMap<>();
+        long productCount = 0;
+        long totalStock = 0;
+        for (Object[] row : repository.aggregateStockAt(at)) {
+            long products = ((Number) row[1]).longValue();
+            long stock = ((Number) row[2]).longValue();
+            byCategory.put((String) row[0], Map.of("productCount", products, "totalStock", stock));
+            productCount += products;
+            totalStock += stock;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("at", at);
+        result.put("productCount", productCount);
+        result.put("totalStock", totalStock);
+        result.put("byCategory", byCategory);
+        return result;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("enqueued", enqueued.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("buffered", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.inventory_backend;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ProductHistoryRepository extends JpaRepository<ProductHistoryEntry, Long> {
+
+    @Query("""
+            select h from ProductHistoryEntry h
+            where h.productId = :productId and h.changedAt >= :from and h.changedAt <= :to
+            order by h.changedAt, h.id""")
+    List<ProductHistoryEntry> findChanges(@Param("productId") Long productId, @Param("from") Instant from,
+                                          @Param("to") Instant to, Limit limit);
+
+    @Query("""
+            select h from ProductHistoryEntry h
+            where h.productId = :productId and h.changedAt <= :at
+            order by h.changedAt desc, h.id desc""")
+    List<ProductHistoryEntry> findLatest(@Param("productId") Long productId, @Param("at") Instant at, Limit limit);
+
+    /**
+     * Per-category [category, productCount, totalStock] at {@code at}, from the last entry
+     * of every product up to then; products deleted by then are left out.
+     */
+    @Query("""
+            select h.category, count(h), coalesce(sum(h.quantityInStock), 0)
+            from ProductHistoryEntry h
+            where h.changedAt <= :at
+              and h.type <> com.example.inventory_backend.ProductChangeEvent.Type.DELETED
+              and not exists (
+                  select 1 from ProductHistoryEntry later
+                  where later.productId = h.productId and later.changedAt <= :at
+                    and (later.changedAt > h.changedAt or (later.changedAt = h.changedAt and later.id > h.id)))
+            group by h.category""")
+    List<Object[]> aggregateStockAt(@Param("at") Instant at);
+}
@@ -0,0 +1,290 @@
+package com.example.inventory_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram inverted index over lowercase product names. Substring queries of
+ * three or more characters intersect the posting lists of their trigrams and verify the
+ * few survivors, instead of lowercasing every name in the catalog on every keystroke.
+ * Kept current from {@link ProductChangeEvent}s and rebuilt at startup; changes that arrive
+ * while a rebuild reads the names are replayed onto it before searches use it.
+ */
+@Component
+public class ProductNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductNameIndex.class);
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One rebuild at a time, so there is only one list of changes to replay
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private volatile boolean ready;
+    // Changes seen while a rebuild reads the names; null when none is running
+    private List<ProductChangeEvent> duringRebuild;
+
+    public ProductNameIndex(ProductRepository productRepository,
+                            @Value("${inventory.search.index.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+    }
+
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                duringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            List<Object[]> rows;
+            try {
+                rows = productRepository.findAllIdsAndNames();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    duringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                names.clear();
+                postings.clear();
+                for (Object[] row : rows) {
+                    add((Long) row[0], (String) row[1]);
+                }
+                // The read may predate these; they carry full states, so replaying one it saw is harmless
+                duringRebuild.forEach(this::apply);
+                duringRebuild = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+        log.info("Product name index built: {}", stats());
+    }
+
+    // Before ProductCache drops the listings built from the previous state
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (duringRebuild != null) {
+                duringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ProductChangeEvent event) {
+        if (event.before() != null) {
+            remove(event.before().id());
+        }
+        if (event.after() != null) {
+            add(event.after().id(), event.after().name());
+        }
+    }
+
+    /**
+     * Ids, in ascending order, of the products whose name contains {@code query}
+     * (case-insensitive), or empty when the index cannot answer yet.
+     */
+    public Optional<long[]> search(String query) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (needle.length() < 3) {
+                return Optional.of(scan(needle));
+            }
+            PostingList[] lists = new PostingList[needle.length() - 2];
+            for (int i = 0; i < lists.length; i++) {
+                PostingList list = postings.get(trigram(needle, i));
+                if (list == null) {
+                    return Optional.of(new long[0]);
+                }
+                lists[i] = list;
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+            long[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = lists[i].retainAll(candidates, count);
+            }
+            // Trigram hits can still be false positives ("abcxbcd" has the trigrams of "abcd")
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                if (names.get(candidates[i]).contains(needle)) {
+                    candidates[matches++] = candidates[i];
+                }
+            }
+            return Optional.of(Arrays.copyOf(candidates, matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap footprint of the index, in total and per indexed product.
+     */
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            long postingEntries = 0;
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                postingEntries += list.size;
+                // map node + boxed key + posting list object + long[] header and slots
+                bytes += 32 + 16 + 24 + 16 + 8L * list.ids.length;
+            }
+            for (String name : names.values()) {
+                // map node + boxed key + String object + byte[] header and (Latin-1) content
+                bytes += 32 + 16 + 24 + 16 + name.length();
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("products", names.size());
+            stats.put("trigrams", postings.size());
+            stats.put("postingEntries", postingEntries);
+            stats.put("estimatedBytes", bytes);
+            stats.put("bytesPerProduct", names.isEmpty() ? 0 : bytes / names.size());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long id, String name) {
+        if (name == null) {
+            return;
+        }
+        String normalized = normalize(name);
+        names.put(id, normalized);
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            postings.computeIfAbsent(trigram(normalized, i), t -> new PostingList()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        String normalized = names.remove(id);
+        if (normalized == null) {
+            return;
+        }
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            long key = trigram(normalized, i);
+            PostingList list = postings.get(key);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private long[] scan(String needle) {
+        long[] ids = new long[names.size()];
+        int count = 0;
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            if (entry.getValue().contains(needle)) {
+                ids[count++] = entry.getKey();
+            }
+        }
+        long[] result = Arrays.copyOf(ids, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String s, int offset) {
+        return ((long) s.charAt(offset) << 32) | ((long) s.charAt(offset + 1) << 16) | s.charAt(offset + 2);
+    }
+
+    /**
+     * Sorted, growable array of product ids.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            if (size > 4 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+            return true;
+        }
+
+        /**
+         * Keeps in {@code candidates[0..count)} only the ids also present here; returns the new count.
+         */
+        int retainAll(long[] candidates, int count) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count && j < size; i++) {
+                while (j < size && ids[j] < candidates[i]) {
+                    j++;
+                }
+                if (j < size && ids[j] == candidates[i]) {
+                    candidates[kept++] = candidates[i];
+                }
+            }
+            return kept;
+        }
+    }
+}
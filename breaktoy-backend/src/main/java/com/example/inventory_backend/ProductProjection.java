@@ -0,0 +1,134 @@
+package com.example.inventory_backend;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A list of products restricted to the fields requested with {@code fields=...}. The
+ * serializer writes those fields straight to the generator (JSON, CBOR or Smile), so no
+ * intermediate maps or filtered copies are built.
+ */
+@JsonSerialize(using = ProductProjection.Serializer.class)
+public record ProductProjection(List<Product> products, Set<Field> fields) {
+
+    public enum Field {
+        ID("id"),
+        NAME("name"),
+        CATEGORY("category"),
+        UNIT_PRICE("unitPrice"),
+        QUANTITY_IN_STOCK("quantityInStock"),
+        EXPIRATION_DATE("expirationDate"),
+        CREATED_AT("createdAt"),
+        UPDATED_AT("updatedAt"),
+        VERSION("version");
+
+        private final String property;
+
+        Field(String property) {
+            this.property = property;
+        }
+
+        public String property() {
+            return property;
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of property names.
+     *
+     * @throws InvalidFieldsException for unknown or missing names
+     */
+    public static Set<Field> parseFields(String fields) {
+        Set<Field> parsed = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(fieldOf(trimmed));
+        }
+        if (parsed.isEmpty()) {
+            throw new InvalidFieldsException("At least one field is required");
+        }
+        return parsed;
+    }
+
+    private static Field fieldOf(String property) {
+        for (Field field : Field.values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new InvalidFieldsException("Unknown field: " + property);
+    }
+
+    public static class Serializer extends JsonSerializer<ProductProjection> {
+
+        @Override
+        public void serialize(ProductProjection projection, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            Field[] fields = projection.fields().toArray(new Field[0]);
+            gen.writeStartArray(projection, projection.products().size());
+            for (Product product : projection.products()) {
+                gen.writeStartObject(product);
+                for (Field field : fields) {
+                    write(gen, field, product);
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+
+        private static void write(JsonGenerator gen, Field field, Product product) throws IOException {
+            gen.writeFieldName(field.property);
+            switch (field) {
+                case ID -> writeNumber(gen, product.getId());
+                case NAME -> gen.writeString(product.getName());
+                case CATEGORY -> gen.writeString(product.getCategory());
+                case UNIT_PRICE -> {
+                    if (product.getUnitPrice() == null) {
+                        gen.writeNull();
+                    } else {
+                        gen.writeNumber(product.getUnitPrice());
+                    }
+                }
+                case QUANTITY_IN_STOCK -> {
+                    if (product.getQuantityInStock() == null) {
+                        gen.writeNull();
+                    } else {
+                        gen.writeNumber(product.getQuantityInStock());
+                    }
+                }
+                case EXPIRATION_DATE -> writeDate(gen, product.getExpirationDate());
+                case CREATED_AT -> writeDate(gen, product.getCreatedAt());
+                case UPDATED_AT -> writeDate(gen, product.getUpdatedAt());
+                case VERSION -> writeNumber(gen, product.getVersion());
+            }
+        }
+
+        private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value);
+            }
+        }
+
+        // ISO-8601, the same form Jackson uses for LocalDate with timestamps disabled
+        private static void writeDate(JsonGenerator gen, LocalDate value) throws IOException {
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(value.toString());
+            }
+        }
+    }
+}
@@ -1,7 +1,148 @@
 package com.example.inventory_backend;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-}
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+
+    /**
+     * Per-category sums computed by the database:
+     * [category, productCount, totalStock, totalValue, inStockPriceSum, inStockCount].
+     */
+    @Query("""
+            select p.category,
+                   count(p),
+                   sum(p.quantityInStock),
+                   sum(p.unitPrice * p.quantityInStock),
+                   sum(case when p.quantityInStock > 0 and p.unitPrice is not null then p.unitPrice else 0 end),
+                   sum(case when p.quantityInStock > 0 and p.unitPrice is not null then 1 else 0 end)
+            from Product p
+            group by p.category""")
+    List<Object[]> aggregateByCategory();
+
+    /**
+     * {@link #aggregateByCategory()} restricted to the products with {@code id mod partitions = partition}.
+     */
+    @Query("""
+            select p.category,
+                   count(p),
+                   sum(p.quantityInStock),
+                   sum(p.unitPrice * p.quantityInStock),
+                   sum(case when p.quantityInStock > 0 and p.unitPrice is not null then p.unitPrice else 0 end),
+                   sum(case when p.quantityInStock > 0 and p.unitPrice is not null then 1 else 0 end)
+            from Product p
+            where mod(p.id, :partitions) = :partition
+            group by p.category""")
+    List<Object[]> aggregateByCategoryInPartition(@Param("partitions") int partitions, @Param("partition") int partition);
+
+    @Query("select p.id, p.name from Product p")
+    List<Object[]> findAllIdsAndNames();
+
+    /**
+     * Scrolls the whole table in id order; must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
+
+    /**
+     * Applies {@code delta} in a single conditional UPDATE; returns 0 when the product does
+     * not exist or the stock would go negative.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Product p
+            set p.quantityInStock = p.quantityInStock + :delta,
+                p.updatedAt = :today,
+                p.version = coalesce(p.version, 0) + 1
+            where p.id = :id and p.quantityInStock + :delta >= 0""")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta, @Param("today") LocalDate today);
 
+    /**
+     * Loads the given products and locks their rows until the transaction ends, so stock
+     * checks made on them still hold when the updates run. Rows are locked in id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id in :ids order by p.id")
+    List<Product> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sets the stock of every listed product in one UPDATE; returns the number of rows changed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Product p
+            set p.quantityInStock = :quantity,
+                p.updatedAt = :today,
+                p.version = coalesce(p.version, 0) + 1
+            where p.id in :ids""")
+    int setStock(@Param("ids") Collection<Long> ids, @Param("quantity") int quantity, @Param("today") LocalDate today);
+
+    /**
+     * Set-based {@link #adjustStock}: adds {@code delta} to every listed product whose stock
+     * stays non-negative.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Product p
+            set p.quantityInStock = p.quantityInStock + :delta,
+                p.updatedAt = :today,
+                p.version = coalesce(p.version, 0) + 1
+            where p.id in :ids and p.quantityInStock + :delta >= 0""")
+    int adjustStockOfAll(@Param("ids") Collection<Long> ids, @Param("delta") int delta, @Param("today") LocalDate today);
+
+    /**
+     * Scalar projection of the columns kept by {@link ProductSnapshot}, in id order, so the
+     * snapshot can be built without hydrating entities. Consume inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select p.id, p.name, p.category, p.unitPrice, p.quantityInStock, p.expirationDate from Product p order by p.id")
+    Stream<Object[]> streamSnapshotRows();
+
+    /**
+     * Keyset page of products expiring on or before {@code until}, ordered by
+     * (expirationDate, id) and starting strictly after ({@code afterDate}, {@code afterId}).
+     */
+    @Query("""
+            select p from Product p
+            where p.expirationDate >= :afterDate and p.expirationDate <= :until
+              and (p.expirationDate > :afterDate or p.id > :afterId)
+            order by p.expirationDate, p.id""")
+    List<Product> findExpiring(@Param("afterDate") LocalDate afterDate, @Param("afterId") long afterId,
+                               @Param("until") LocalDate until, Limit limit);
+
+    @Query("""
+            select p from Product p
+            where p.category in :categories
+              and p.expirationDate >= :afterDate and p.expirationDate <= :until
+              and (p.expirationDate > :afterDate or p.id > :afterId)
+            order by p.expirationDate, p.id""")
+    List<Product> findExpiringInCategories(@Param("categories") Collection<String> categories,
+                                           @Param("afterDate") LocalDate afterDate, @Param("afterId") long afterId,
+                                           @Param("until") LocalDate until, Limit limit);
+
+    /**
+     * Per-category, per-day sums over an expiration window:
+     * [category, expirationDate, productCount, totalStock, totalValue].
+     */
+    @Query("""
+            select p.category, p.expirationDate, count(p), sum(p.quantityInStock), sum(p.unitPrice * p.quantityInStock)
+            from Product p
+            where p.expirationDate between :from and :until
+            group by p.category, p.expirationDate""")
+    List<Object[]> aggregateExpiring(@Param("from") LocalDate from, @Param("until") LocalDate until);
+}
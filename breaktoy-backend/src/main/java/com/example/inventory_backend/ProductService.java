@@ -1,195 +1,513 @@
 package com.example.inventory_backend;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.Comparator;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class ProductService {
-    private final ProductRepository productRepository;
+    private static final String EXPIRING_SORT = "expirationDate";
+    // Keeps IN lists within what every database accepts
+    private static final int IN_LIST_CHUNK = 1000;
 
-    public ProductService(ProductRepository productRepository) {
+    private final ProductRepository productRepository;
+    private final ClusterCoordinator clusterCoordinator;
+    private final ProductNameIndex nameIndex;
+    private final ProductCache productCache;
+    private final ProductSnapshotStore snapshotStore;
+    private final JdbcConcurrencyGuard jdbcGuard;
+    private final StageTimers stageTimers;
+    private final ReadAdmission readAdmission;
+    private final InventoryMetricsHistory metricsHistory;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxIndexCandidates;
+    private final boolean snapshotListing;
+    private final int maxBatchOperations;
+
+    public ProductService(ProductRepository productRepository,
+                          ClusterCoordinator clusterCoordinator,
+                          ProductNameIndex nameIndex,
+                          ProductCache productCache,
+                          ProductSnapshotStore snapshotStore,
+                          JdbcConcurrencyGuard jdbcGuard,
+                          StageTimers stageTimers,
+                          ReadAdmission readAdmission,
+                          InventoryMetricsHistory metricsHistory,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${inventory.search.index.max-candidates:1000}") int maxIndexCandidates,
+                          @Value("${inventory.listing.source:database}") String listingSource,
+                          @Value("${inventory.stock.batch.max-operations:50000}") int maxBatchOperations) {
         this.productRepository = productRepository;
+        this.clusterCoordinator = clusterCoordinator;
+        this.nameIndex = nameIndex;
+        this.productCache = productCache;
+        this.snapshotStore = snapshotStore;
+        this.jdbcGuard = jdbcGuard;
+        this.stageTimers = stageTimers;
+        this.readAdmission = readAdmission;
+        this.metricsHistory = metricsHistory;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        // The candidates go into a single IN list, so never more than one chunk of ids
+        this.maxIndexCandidates = Math.min(maxIndexCandidates, IN_LIST_CHUNK);
+        this.snapshotListing = "snapshot".equalsIgnoreCase(listingSource);
+        this.maxBatchOperations = maxBatchOperations;
     }
 
     @Transactional
     public Product createProduct(Product product) {
+        product.setId(null);
+        product.setVersion(null);
         product.setCreatedAt(LocalDate.now());
         product.setUpdatedAt(LocalDate.now());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangeEvent.created(saved));
+        return saved;
     }
 
     @Transactional
     public Optional<Product> updateProduct(Long id, Product updatedProduct) {
         return productRepository.findById(id).map(product -> {
+            // A client that read the product sends its version back; a mismatch means a lost update
+            if (updatedProduct.getVersion() != null && !updatedProduct.getVersion().equals(product.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Product.class, id);
+            }
+            ProductState before = ProductState.of(product);
             product.setName(updatedProduct.getName());
             product.setCategory(updatedProduct.getCategory());
             product.setUnitPrice(updatedProduct.getUnitPrice());
             product.setQuantityInStock(updatedProduct.getQuantityInStock());
             product.setExpirationDate(updatedProduct.getExpirationDate());
             product.setUpdatedAt(LocalDate.now());
-            return productRepository.save(product);
+            Product saved = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangeEvent.updated(before, saved));
+            return saved;
         });
     }
 
     @Transactional
     public boolean deleteProduct(Long id) {
-        if (productRepository.existsById(id)) {
-            productRepository.deleteById(id);
+        return productRepository.findById(id).map(product -> {
+            ProductState before = ProductState.of(product);
+            productRepository.delete(product);
+            eventPublisher.publishEvent(ProductChangeEvent.deleted(before));
             return true;
-        }
-        return false;
+        }).orElse(false);
     }
 
     @Transactional
     public Optional<Product> markProductInStock(Long id, Integer quantity) {
         return productRepository.findById(id).map(product -> {
+            ProductState before = ProductState.of(product);
             product.setQuantityInStock(quantity);
             product.setUpdatedAt(LocalDate.now());
-            return productRepository.save(product);
+            Product saved = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangeEvent.stockChanged(before, saved));
+            return saved;
         });
     }
 
     @Transactional
     public Optional<Product> markProductOutOfStock(Long id) {
         return productRepository.findById(id).map(product -> {
+            ProductState before = ProductState.of(product);
             product.setQuantityInStock(0);
             product.setUpdatedAt(LocalDate.now());
-            return productRepository.save(product);
+            Product saved = productRepository.save(product);
+            eventPublisher.publishEvent(ProductChangeEvent.stockChanged(before, saved));
+            return saved;
         });
     }
 
-    @Transactional(readOnly = true)
-    public Map<String, Object> getInventoryMetrics() {
-        List<Product> productList = productRepository.findAll();
-        Map<String, Object> metrics = new HashMap<>();
-
-        int totalStock = productList.stream()
-                .filter(p -> p.getQuantityInStock() != null)
-                .mapToInt(Product::getQuantityInStock)
-                .sum();
-
-        double totalValue = productList.stream()
-                .filter(p -> p.getUnitPrice() != null && p.getQuantityInStock() != null)
-                .mapToDouble(p -> p.getUnitPrice() * p.getQuantityInStock())
-                .sum();
-
-        double avgPrice = productList.stream()
-                .filter(p -> p.getQuantityInStock() != null && p.getQuantityInStock() > 0 && p.getUnitPrice() != null)
-                .mapToDouble(Product::getUnitPrice)
-                .average().orElse(0);
-
-        metrics.put("totalStock", totalStock);
-        metrics.put("totalValue", totalValue);
-        metrics.put("avgPrice", avgPrice);
-
-        Map<String, Map<String, Object>> byCategory = new HashMap<>();
-        productList.stream()
-                .filter(p -> p.getCategory() != null)
-                .collect(Collectors.groupingBy(Product::getCategory))
-                .forEach((cat, products) -> {
-                    int catTotalStock = products.stream()
-                            .filter(p -> p.getQuantityInStock() != null)
-                            .mapToInt(Product::getQuantityInStock)
-                            .sum();
-                    double catTotalValue = products.stream()
-                            .filter(p -> p.getUnitPrice() != null && p.getQuantityInStock() != null)
-                            .mapToDouble(p -> p.getUnitPrice() * p.getQuantityInStock())
-                            .sum();
-                    double catAvgPrice = products.stream()
-                            .filter(p -> p.getQuantityInStock() != null && p.getQuantityInStock() > 0 && p.getUnitPrice() != null)
-                            .mapToDouble(Product::getUnitPrice)
-                            .average().orElse(0);
-
-                    Map<String, Object> catMetrics = new HashMap<>();
-                    catMetrics.put("totalStock", catTotalStock);
-                    catMetrics.put("totalValue", catTotalValue);
-                    catMetrics.put("avgPrice", catAvgPrice);
-
-                    byCategory.put(cat, catMetrics);
-                });
-        metrics.put("byCategory", byCategory);
-
-        return metrics;
+    /**
+     * Adds {@code delta} (possibly negative) to the stock with one conditional UPDATE, so
+     * concurrent adjustments of the same SKU never lose updates and cannot go below zero.
+     */
+    @Transactional
+    public Optional<Product> adjustStock(Long id, int delta) {
+        if (productRepository.adjustStock(id, delta, LocalDate.now()) == 0) {
+            if (!productRepository.existsById(id)) {
+                return Optional.empty();
+            }
+            throw new InsufficientStockException(id, delta);
+        }
+        return productRepository.findById(id).map(product -> {
+            ProductState after = ProductState.of(product);
+            eventPublisher.publishEvent(new ProductChangeEvent(ProductChangeEvent.Type.STOCK_CHANGED,
+                    after.withQuantityInStock(product.getQuantityInStock() - delta), after));
+            return product;
+        });
+    }
+
+    /**
+     * Applies many stock operations in one transaction. The affected rows are locked and
+     * checked first. The accepted operations then run as a few set-based UPDATEs: one per
+     * distinct target quantity (out-of-stock is quantity 0) and one per distinct delta, in
+     * chunks of {@value #IN_LIST_CHUNK} ids. As with the single-product operations, every
+     * change sets {@code updatedAt} to today, bumps the version and publishes a
+     * {@link ProductChangeEvent}. A rejected operation does not affect the others. An id may
+     * appear only once per batch.
+     */
+    @Transactional
+    public StockBatchResult applyStockOperations(List<StockOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new InvalidStockBatchException("At least one operation is required");
+        }
+        if (operations.size() > maxBatchOperations) {
+            throw new InvalidStockBatchException("At most " + maxBatchOperations + " operations per batch");
+        }
+        StockBatchResult.Item[] results = new StockBatchResult.Item[operations.size()];
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            StockOperation operation = operations.get(i);
+            String problem = operation.problem();
+            if (problem != null) {
+                results[i] = StockBatchResult.Item.rejected(operation.id(), StockBatchResult.Status.INVALID, problem);
+            } else if (!ids.add(operation.id())) {
+                results[i] = StockBatchResult.Item.rejected(operation.id(), StockBatchResult.Status.DUPLICATE,
+                        "Product already appears earlier in the batch");
+            }
+        }
+
+        // Every batch locks in ascending id order, so two overlapping batches cannot deadlock
+        List<Long> lockOrder = new ArrayList<>(ids);
+        Collections.sort(lockOrder);
+        Map<Long, Product> locked = new HashMap<>();
+        stageTimers.record("stock-batch", "lock", () -> {
+            for (List<Long> chunk : chunks(lockOrder)) {
+                productRepository.findAllForUpdate(chunk).forEach(product -> locked.put(product.getId(), product));
+            }
+            return locked;
+        });
+
+        Map<Integer, List<Long>> byQuantity = new HashMap<>();
+        Map<Integer, List<Long>> byDelta = new HashMap<>();
+        List<ProductChangeEvent> events = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            StockOperation operation = operations.get(i);
+            Product product = locked.get(operation.id());
+            if (product == null) {
+                results[i] = StockBatchResult.Item.rejected(operation.id(), StockBatchResult.Status.NOT_FOUND, null);
+                continue;
+            }
+            Integer current = product.getQuantityInStock();
+            int target;
+            if (operation.delta() != null) {
+                long adjusted = current == null ? -1 : (long) current + operation.delta();
+                if (adjusted < 0 || adjusted > Integer.MAX_VALUE) {
+                    results[i] = StockBatchResult.Item.rejected(operation.id(), StockBatchResult.Status.INSUFFICIENT_STOCK,
+                            "Adjusting by " + operation.delta() + " would make the stock negative");
+                    continue;
+                }
+                target = (int) adjusted;
+                byDelta.computeIfAbsent(operation.delta(), d -> new ArrayList<>()).add(operation.id());
+            } else {
+                target = operation.isOutOfStock() ? 0 : operation.quantity();
+                byQuantity.computeIfAbsent(target, q -> new ArrayList<>()).add(operation.id());
+            }
+            results[i] = StockBatchResult.Item.updated(operation.id(), target);
+            ProductState before = ProductState.of(product);
+            events.add(new ProductChangeEvent(ProductChangeEvent.Type.STOCK_CHANGED, before, before.withQuantityInStock(target)));
+        }
+
+        LocalDate today = LocalDate.now();
+        stageTimers.record("stock-batch", "update", () -> {
+            byQuantity.forEach((quantity, group) -> {
+                for (List<Long> chunk : chunks(group)) {
+                    productRepository.setStock(chunk, quantity, today);
+                }
+            });
+            byDelta.forEach((delta, group) -> {
+                for (List<Long> chunk : chunks(group)) {
+                    // The rows are locked and were checked above, so every one of them must match
+                    if (productRepository.adjustStockOfAll(chunk, delta, today) != chunk.size()) {
+                        throw new IllegalStateException("Locked stock changed during a batch update");
+                    }
+                }
+            });
+            return events.size();
+        });
+        events.forEach(eventPublisher::publishEvent);
+        return new StockBatchResult(operations.size(), events.size(), List.of(results));
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>((ids.size() + IN_LIST_CHUNK - 1) / IN_LIST_CHUNK);
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+            chunks.add(ids.subList(from, Math.min(from + IN_LIST_CHUNK, ids.size())));
+        }
+        return chunks;
+    }
+
+    public InventoryMetricsSnapshot getInventoryMetrics() {
+        return readInventoryMetrics().value();
+    }
+
+    /**
+     * {@link #getInventoryMetrics} with the admission outcome, so that a stale snapshot
+     * served under overload is not passed off as the current one.
+     */
+    public ReadAdmission.Result<InventoryMetricsSnapshot> readInventoryMetrics() {
+        return readAdmission.read("metrics", "all",
+                () -> stageTimers.record("metrics", "aggregate", () -> clusterCoordinator.getMetrics()));
+    }
+
+    /**
+     * Entity tag of the current metrics without computing them; null when they cannot be
+     * tagged. Only good for answering If-None-Match: a write may land before the body is
+     * fetched, so responses are tagged with {@link #getInventoryMetricsEtag(InventoryMetricsSnapshot)}.
+     */
+    public String getInventoryMetricsEtag() {
+        return clusterCoordinator.getMetricsEtag();
+    }
+
+    /**
+     * Entity tag of {@code metrics}, from the version it was computed at; null when it
+     * cannot be tagged.
+     */
+    public String getInventoryMetricsEtag(InventoryMetricsSnapshot metrics) {
+        return clusterCoordinator.getMetricsEtag(metrics);
+    }
+
+    /**
+     * Sampled metrics between {@code from} and {@code to}, read from the in-memory buckets
+     * of {@link InventoryMetricsHistory}; {@code step} may be null to use the natural one.
+     */
+    public MetricsHistory getInventoryMetricsHistory(Instant from, Instant to, Duration step, List<String> categories) {
+        return metricsHistory.history(from, to, step, categories);
     }
 
     @Transactional(readOnly = true)
-    public List<Product> getAllProducts(String name, List<String> category, Boolean inStock,
+    public Optional<Product> findById(Long id) {
+        return productCache.getProduct(id, () -> productRepository.findById(id));
+    }
+
+    /**
+     * Cache misses go through {@link ReadAdmission}: identical concurrent requests share one
+     * query, and the transaction is only opened by the caller that runs it, so the ones
+     * waiting on it hold no connection.
+     */
+    public Page<Product> getAllProducts(String name, List<String> category, Boolean inStock,
                                         String sortBy, String sortBy2, String order, String order2,
                                         int page, int size) {
-        Stream<Product> stream = productRepository.findAll().stream();
-
-        if (name != null && !name.isEmpty()) {
-            stream = stream.filter(p -> p.getName() != null && p.getName().toLowerCase().contains(name.toLowerCase()));
+        if (page < 0 || size < 1) {
+            return Page.empty();
         }
-        if (category != null && !category.isEmpty()) {
-            stream = stream.filter(p -> category.contains(p.getCategory()));
+        ListingKey key = ListingKey.of(name, category, inStock, sortBy, sortBy2, order, order2, page, size);
+        return productCache.getListing(key, () -> readAdmission.read("listing", key,
+                () -> readOnlyTransaction.execute(status -> loadListing(name, category, inStock, sortBy, sortBy2, order, order2, page, size))));
+    }
+
+    private Page<Product> loadListing(String name, List<String> category, Boolean inStock,
+                                      String sortBy, String sortBy2, String order, String order2,
+                                      int page, int size) {
+        if (snapshotListing) {
+            return snapshotPage(name, category, inStock, sortBy, sortBy2, order, order2, page, size);
         }
-        if (inStock != null) {
-            stream = stream.filter(p -> inStock ? p.getQuantityInStock() > 0 : p.getQuantityInStock() == 0);
+        Optional<Specification<Product>> filter = stageTimers.record("listing", "filter",
+                () -> listingFilter(name, category, inStock));
+        if (filter.isEmpty()) {
+            return Page.empty();
         }
+        Specification<Product> spec = filter.get()
+                .and(ProductSpecifications.orderedBy(sortBy, order, sortBy2, order2));
+        // Filtering, sorting and paging all happen in this one query (plus its count)
+        return stageTimers.record("listing", "query", () -> productRepository.findAll(spec, PageRequest.of(page, size)));
+    }
 
-        Comparator<Product> comparator = null;
-        if (sortBy != null) {
-            comparator = getComparator(sortBy, order);
-        }
-        if (sortBy2 != null) {
-            Comparator<Product> secondaryComparator = getComparator(sortBy2, order2);
-            comparator = comparator == null ? secondaryComparator : comparator.thenComparing(secondaryComparator);
+    /**
+     * {@link #getAllProducts} plus facet counts for the filter. The page and the counts come
+     * from one pass over the columnar snapshot, whatever {@code inventory.listing.source}
+     * says; these listings are not cached.
+     */
+    @Transactional(readOnly = true)
+    public FacetedPage getFacetedProducts(String name, List<String> category, Boolean inStock,
+                                          String sortBy, String sortBy2, String order, String order2,
+                                          int page, int size) {
+        boolean valid = page >= 0 && size >= 1;
+        ProductSnapshotStore.SnapshotPage selected = stageTimers.record("listing", "select",
+                () -> snapshotStore.select(name, category, inStock, sortBy, sortBy2, order, order2,
+                        valid ? page : 0, valid ? size : 0, true));
+        Page<Product> content = valid ? loadPage(selected, page, size) : Page.empty();
+        return new FacetedPage(content, selected.facets());
+    }
+
+    /**
+     * Facet counts alone, for listings whose rows come from elsewhere (keyset pages).
+     */
+    public ListingFacets getListingFacets(String name, List<String> category, Boolean inStock) {
+        return stageTimers.record("listing", "facets",
+                () -> snapshotStore.select(name, category, inStock, null, null, "asc", "asc", 0, 0, true).facets());
+    }
+
+    /**
+     * Keyset variant of {@link #getAllProducts}: resumes after {@code cursor} (null for the
+     * first page) with a seek predicate, so every page costs the same regardless of depth.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage getProductsAfter(String name, List<String> category, Boolean inStock,
+                                       String sortBy, String sortBy2, String order, String order2,
+                                       String cursor, int size) {
+        Optional<Specification<Product>> filter = stageTimers.record("listing-cursor", "filter",
+                () -> listingFilter(name, category, inStock));
+        if (size < 1 || filter.isEmpty()) {
+            return new CursorPage(List.of(), null);
         }
-        if (comparator != null) {
-            stream = stream.sorted(comparator);
+        Specification<Product> spec = filter.get()
+                .and(ProductSpecifications.orderedBy(sortBy, order, sortBy2, order2));
+        if (cursor != null && !cursor.isEmpty()) {
+            ProductCursor position = ProductCursor.decode(cursor);
+            if (!position.matches(sortBy, order, sortBy2, order2)) {
+                throw new InvalidCursorException("Cursor was issued for a different sort order");
+            }
+            spec = spec.and(ProductSpecifications.after(position));
         }
-
-        List<Product> filteredList = stream.collect(Collectors.toList());
-        int fromIndex = page * size;
-        int toIndex = Math.min(fromIndex + size, filteredList.size());
-        if (fromIndex > toIndex) {
-            return new ArrayList<>();
+        // One extra row tells us whether there is a next page without a count query
+        Specification<Product> seek = spec;
+        List<Product> rows = stageTimers.record("listing-cursor", "query",
+                () -> productRepository.findBy(seek, query -> query.limit(size + 1).all()));
+        if (rows.size() <= size) {
+            return new CursorPage(rows, null);
         }
-        return filteredList.subList(fromIndex, toIndex);
+        List<Product> content = rows.subList(0, size);
+        Product last = content.get(size - 1);
+        return new CursorPage(content, ProductCursor.after(last, sortBy, order, sortBy2, order2).encode());
     }
 
-    private Comparator<Product> getComparator(String field, String order) {
-        Comparator<Product> comparator;
-        switch (field) {
-            case "name" -> comparator = Comparator.comparing(Product::getName, Comparator.nullsLast(String::compareToIgnoreCase));
-            case "category" -> comparator = Comparator.comparing(Product::getCategory, Comparator.nullsLast(String::compareToIgnoreCase));
-            case "unitPrice" -> comparator = Comparator.comparing(Product::getUnitPrice, Comparator.nullsLast(Double::compareTo));
-            case "quantityInStock" -> comparator = Comparator.comparing(Product::getQuantityInStock, Comparator.nullsLast(Integer::compareTo));
-            case "expirationDate" -> comparator = Comparator.comparing(Product::getExpirationDate, Comparator.nullsLast(LocalDate::compareTo));
-            default -> comparator = Comparator.comparing(Product::getId);
+    /**
+     * Products expiring from today through {@code days} days from now, soonest first, one
+     * keyset page at a time over the (expirationDate, id) index.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage getExpiringProducts(int days, List<String> category, String cursor, int size) {
+        if (size < 1 || days < 0) {
+            return new CursorPage(List.of(), null);
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate afterDate = today.minusDays(1);
+        long afterId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            ProductCursor position = ProductCursor.decode(cursor);
+            if (!position.matches(EXPIRING_SORT, "asc", null, null) || position.key() == null) {
+                throw new InvalidCursorException("Cursor was not issued by the expiring listing");
+            }
+            LocalDate cursorDate = LocalDate.parse(position.key());
+            if (!cursorDate.isBefore(today)) {
+                afterDate = cursorDate;
+                afterId = position.id();
+            }
         }
-        if ("desc".equalsIgnoreCase(order)) {
-            comparator = comparator.reversed();
+        LocalDate until = today.plusDays(days);
+        Limit limit = Limit.of(size + 1);
+        LocalDate seekDate = afterDate;
+        long seekId = afterId;
+        List<Product> rows = stageTimers.record("expiring", "query", () -> category == null || category.isEmpty()
+                ? productRepository.findExpiring(seekDate, seekId, until, limit)
+                : productRepository.findExpiringInCategories(category, seekDate, seekId, until, limit));
+        if (rows.size() <= size) {
+            return new CursorPage(rows, null);
         }
-        return comparator;
+        List<Product> content = rows.subList(0, size);
+        Product last = content.get(size - 1);
+        return new CursorPage(content, ProductCursor.after(last, EXPIRING_SORT, "asc", null, null).encode());
+    }
+
+    public Map<String, Object> getNameIndexStats() {
+        return nameIndex.stats();
+    }
 
+    public Map<String, Object> getCacheStats() {
+        return productCache.stats();
+    }
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+    public Map<String, Object> getSnapshotStats() {
+        return snapshotStore.stats();
+    }
 
-@Service
-public class ProductService {
+    public Map<String, Object> getJdbcStats() {
+        return jdbcGuard.stats();
+    }
 
-    private final List<Product> productList = new ArrayList<>();
+    public Map<String, Object> getClusterStats() {
+        return clusterCoordinator.stats();
+    }
 
-    public List<Product> getProductList() {
-        return productList;
+    public Map<String, Object> getAdmissionStats() {
+        return readAdmission.stats();
     }
 
-    public Optional<Product> findById(Long id) {
-        return productList.stream()
-                .filter(p -> p.getId().equals(id))
-                .findFirst();
+    public Map<String, Object> getMetricsHistoryStats() {
+        return metricsHistory.stats();
+    }
 
+    /**
+     * Filters and sorts on the columnar snapshot, then loads only the entities of the
+     * requested page by primary key.
+     */
+    private Page<Product> snapshotPage(String name, List<String> category, Boolean inStock,
+                                       String sortBy, String sortBy2, String order, String order2,
+                                       int page, int size) {
+        ProductSnapshotStore.SnapshotPage selected = stageTimers.record("listing", "select",
+                () -> snapshotStore.select(name, category, inStock, sortBy, sortBy2, order, order2, page, size));
+        return loadPage(selected, page, size);
+    }
+
+    // Loads the selected ids by primary key, keeping the snapshot's order
+    private Page<Product> loadPage(ProductSnapshotStore.SnapshotPage selected, int page, int size) {
+        List<Long> ids = new ArrayList<>(selected.ids().length);
+        for (long id : selected.ids()) {
+            ids.add(id);
+        }
+        Map<Long, Product> loaded = new HashMap<>();
+        stageTimers.record("listing", "fetch", () -> productRepository.findAllById(ids))
+                .forEach(product -> loaded.put(product.getId(), product));
+        List<Product> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = loaded.get(id);
+            if (product != null) {
+                content.add(product);
+            }
+        }
+        return new PageImpl<>(content, PageRequest.of(page, size), selected.total());
     }
-}
 
+    /**
+     * Resolves the name filter through the trigram index when it can, so the database only
+     * sees an id list; falls back to a LIKE predicate when the index is not ready or the
+     * match set is too large to be worth an IN list. Empty when nothing can match.
+     */
+    private Optional<Specification<Product>> listingFilter(String name, List<String> category, Boolean inStock) {
+        if (name != null && !name.isEmpty()) {
+            Optional<long[]> matches = nameIndex.search(name);
+            if (matches.isPresent() && matches.get().length <= maxIndexCandidates) {
+                if (matches.get().length == 0) {
+                    return Optional.empty();
+                }
+                return Optional.of(ProductSpecifications.filtered(null, category, inStock)
+                        .and(ProductSpecifications.idIn(matches.get())));
+            }
+        }
+        return Optional.of(ProductSpecifications.filtered(name, category, inStock));
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.inventory_backend;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, column-oriented copy of the catalog: one primitive array per field, rows
+ * sorted by id. Missing values use sentinels ({@code NaN} prices, {@link #NULL_INT}
+ * quantities and dates, {@link CategoryDictionary#NO_CATEGORY}). Names are kept only in
+ * their lowercase form, which is all that filtering and sorting need.
+ */
+public final class ProductSnapshot {
+
+    public static final int NULL_INT = Integer.MIN_VALUE;
+
+    static final ProductSnapshot EMPTY = new Builder(0).build();
+
+    final long[] id;
+    final String[] nameKey;
+    final int[] categoryId;
+    final double[] unitPrice;
+    final int[] quantity;
+    final int[] expirationDay;
+    final int size;
+
+    private ProductSnapshot(long[] id, String[] nameKey, int[] categoryId, double[] unitPrice,
+                            int[] quantity, int[] expirationDay, int size) {
+        this.id = id;
+        this.nameKey = nameKey;
+        this.categoryId = categoryId;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+        this.expirationDay = expirationDay;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int row) {
+        return id[row];
+    }
+
+    /**
+     * Row holding {@code productId}, or a negative value when absent.
+     */
+    public int rowOf(long productId) {
+        return Arrays.binarySearch(id, 0, size, productId);
+    }
+
+    /**
+     * Approximate heap used by the columns and lowercase names.
+     */
+    public long estimatedBytes() {
+        long bytes = 6L * 16 + (long) id.length * (8 + 4 + 4 + 8 + 4 + 4);
+        for (int row = 0; row < size; row++) {
+            if (nameKey[row] != null) {
+                bytes += 24 + 16 + nameKey[row].length();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Copy-on-write: returns a new snapshot with the given changes applied (an empty state
+     * deletes the row). Unchanged columns are copied once for the whole change set.
+     */
+    ProductSnapshot apply(Map<Long, PendingChange> changes, CategoryDictionary categories) {
+        long[] changedIds = changes.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        Builder builder = new Builder(size + changedIds.length);
+        int row = 0;
+        for (long changedId : changedIds) {
+            while (row < size && id[row] < changedId) {
+                builder.copyRow(this, row++);
+            }
+            if (row < size && id[row] == changedId) {
+                row++; // replaced or deleted
+            }
+            ProductState state = changes.get(changedId).state();
+            if (state != null) {
+                builder.add(state, categories);
+            }
+        }
+        while (row < size) {
+            builder.copyRow(this, row++);
+        }
+        return builder.build();
+    }
+
+    record PendingChange(ProductState state) {
+    }
+
+    static int toDay(LocalDate date) {
+        return date == null ? NULL_INT : (int) date.toEpochDay();
+    }
+
+    /**
+     * Appends rows, which must arrive in ascending id order.
+     */
+    static final class Builder {
+
+        private long[] id;
+        private String[] nameKey;
+        private int[] categoryId;
+        private double[] unitPrice;
+        private int[] quantity;
+        private int[] expirationDay;
+        private int size;
+
+        Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            id = new long[capacity];
+            nameKey = new String[capacity];
+            categoryId = new int[capacity];
+            unitPrice = new double[capacity];
+            quantity = new int[capacity];
+            expirationDay = new int[capacity];
+        }
+
+        void add(long productId, String name, String category, Double price, Integer stock, LocalDate expiration,
+                 CategoryDictionary categories) {
+            ensureCapacity();
+            id[size] = productId;
+            nameKey[size] = name == null ? null : name.toLowerCase(Locale.ROOT);
+            categoryId[size] = categories.intern(category);
+            unitPrice[size] = price == null ? Double.NaN : price;
+            quantity[size] = stock == null ? NULL_INT : stock;
+            expirationDay[size] = toDay(expiration);
+            size++;
+        }
+
+        void add(ProductState state, CategoryDictionary categories) {
+            add(state.id(), state.name(), state.category(), state.unitPrice(), state.quantityInStock(),
+                    state.expirationDate(), categories);
+        }
+
+        void copyRow(ProductSnapshot from, int row) {
+            ensureCapacity();
+            id[size] = from.id[row];
+            nameKey[size] = from.nameKey[row];
+            categoryId[size] = from.categoryId[row];
+            unitPrice[size] = from.unitPrice[row];
+            quantity[size] = from.quantity[row];
+            expirationDay[size] = from.expirationDay[row];
+            size++;
+        }
+
+        ProductSnapshot build() {
+            if (size != id.length) {
+                resize(size);
+            }
+            return new ProductSnapshot(id, nameKey, categoryId, unitPrice, quantity, expirationDay, size);
+        }
+
+        private void ensureCapacity() {
+            if (size == id.length) {
+                resize(id.length * 2);
+            }
+        }
+
+        private void resize(int capacity) {
+            id = Arrays.copyOf(id, capacity);
+            nameKey = Arrays.copyOf(nameKey, capacity);
+            categoryId = Arrays.copyOf(categoryId, capacity);
+            unitPrice = Arrays.copyOf(unitPrice, capacity);
+            quantity = Arrays.copyOf(quantity, capacity);
+            expirationDay = Arrays.copyOf(expirationDay, capacity);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.inventory_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Holds the current {@link ProductSnapshot}. Committed changes are queued and folded into a
+ * new snapshot (copy-on-write) the next time someone reads it, so a burst of writes costs
+ * one copy. Readers keep whatever snapshot they got, unaffected by later writes.
+ */
+@Component
+public class ProductSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSnapshotStore.class);
+
+    private final ProductRepository productRepository;
+    private final CategoryDictionary categories;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int topKRatio;
+
+    private final Map<Long, ProductSnapshot.PendingChange> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile ProductSnapshot snapshot = ProductSnapshot.EMPTY;
+    // Changes seen since a rebuild started; current() may fold them into the snapshot it replaces
+    private volatile Map<Long, ProductSnapshot.PendingChange> sinceRebuild;
+
+    public ProductSnapshotStore(ProductRepository productRepository,
+                                CategoryDictionary categories,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${inventory.listing.top-k-ratio:8}") int topKRatio) {
+        this.productRepository = productRepository;
+        this.categories = categories;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.topKRatio = Math.max(1, topKRatio);
+    }
+
+    public void rebuild() {
+        lock.lock();
+        try {
+            sinceRebuild = new ConcurrentHashMap<>();
+        } finally {
+            lock.unlock();
+        }
+        ProductSnapshot.Builder builder = new ProductSnapshot.Builder((int) productRepository.count());
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = productRepository.streamSnapshotRows()) {
+                    rows.forEach(row -> builder.add((Long) row[0], (String) row[1], (String) row[2],
+                            (Double) row[3], (Integer) row[4], (LocalDate) row[5], categories));
+                }
+            });
+        } catch (RuntimeException e) {
+            sinceRebuild = null;
+            throw e;
+        }
+        ProductSnapshot built = builder.build();
+        lock.lock();
+        try {
+            // The query may have missed these; they are full states, so re-applying them is harmless
+            Map<Long, ProductSnapshot.PendingChange> missed = sinceRebuild;
+            sinceRebuild = null;
+            if (!missed.isEmpty()) {
+                built = built.apply(new HashMap<>(missed), categories);
+            }
+            snapshot = built;
+        } finally {
+            lock.unlock();
+        }
+        log.info("Product snapshot built: {}", stats());
+    }
+
+    // Before ProductCache drops the listings built from the previous state
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        ProductSnapshot.PendingChange change = new ProductSnapshot.PendingChange(event.after());
+        // Recorded for a running rebuild before it is queued, so no reader can fold it away unseen
+        Map<Long, ProductSnapshot.PendingChange> rebuilding = sinceRebuild;
+        if (rebuilding != null) {
+            rebuilding.put(event.productId(), change);
+        }
+        pending.put(event.productId(), change);
+    }
+
+    public ProductSnapshot current() {
+        if (pending.isEmpty()) {
+            return snapshot;
+        }
+        lock.lock();
+        try {
+            if (!pending.isEmpty()) {
+                Map<Long, ProductSnapshot.PendingChange> batch = new HashMap<>();
+                for (Long id : pending.keySet()) {
+                    batch.put(id, pending.remove(id));
+                }
+                snapshot = snapshot.apply(batch, categories);
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CategoryDictionary categories() {
+        return categories;
+    }
+
+    /**
+     * Filters and sorts the snapshot with the same semantics as the database listing and
+     * returns the ids of the requested page, in order, plus the number of matches.
+     */
+    public SnapshotPage select(String name, List<String> category, Boolean inStock,
+                               String sortBy, String sortBy2, String order, String order2,
+                               int page, int size) {
+        return select(name, category, inStock, sortBy, sortBy2, order, order2, page, size, false);
+    }
+
+    /**
+     * As above; with {@code withFacets} the same filter pass also counts the matches per
+     * category and by stock state. A {@code size} of 0 yields only the counts.
+     */
+    public SnapshotPage select(String name, List<String> category, Boolean inStock,
+                               String sortBy, String sortBy2, String order, String order2,
+                               int page, int size, boolean withFacets) {
+        ProductSnapshot current = current();
+        String needle = name == null || name.isEmpty() ? null : name.toLowerCase(Locale.ROOT);
+        BitSet allowedCategories = null;
+        if (category != null && !category.isEmpty()) {
+            allowedCategories = new BitSet(categories.size());
+            for (String value : category) {
+                int id = categories.idOf(value);
+                if (id != CategoryDictionary.NO_CATEGORY) {
+                    allowedCategories.set(id);
+                }
+            }
+        }
+
+        int[] rows = new int[current.size];
+        int matches = 0;
+        // Slot id + 1 counts the category with that dictionary id, slot 0 products without one
+        long[] categoryCounts = withFacets ? new long[categories.size() + 1] : null;
+        long inStockCount = 0;
+        long outOfStockCount = 0;
+        for (int row = 0; row < current.size; row++) {
+            if (needle != null && (current.nameKey[row] == null || !current.nameKey[row].contains(needle))) {
+                continue;
+            }
+            if (allowedCategories != null
+                    && (current.categoryId[row] < 0 || !allowedCategories.get(current.categoryId[row]))) {
+                continue;
+            }
+            int quantity = current.quantity[row];
+            if (inStock != null
+                    && (quantity == ProductSnapshot.NULL_INT || (inStock ? quantity <= 0 : quantity != 0))) {
+                continue;
+            }
+            rows[matches++] = row;
+            if (withFacets) {
+                categoryCounts[current.categoryId[row] + 1]++;
+                if (quantity > 0) {
+                    inStockCount++;
+                } else if (quantity == 0) {
+                    outOfStockCount++;
+                }
+            }
+        }
+        ListingFacets facets = withFacets ? facets(categoryCounts, inStockCount, outOfStockCount) : null;
+
+        long from = (long) page * size;
+        int end = (int) Math.min(from + size, matches);
+        // Past the last match, or a counts-only request: no rows to order
+        if (from >= end) {
+            return new SnapshotPage(new long[0], matches, facets);
+        }
+        int[] positions = null; // null: rows are already in id order
+        if (sortBy != null || sortBy2 != null) {
+            RowSortKeys keys = RowSortKeys.of(current, categories, rows, matches, sortBy, order, sortBy2, order2);
+            // Early pages only need the first `end` rows, which a bounded heap finds without a full sort
+            positions = (long) end * topKRatio <= matches ? keys.top(matches, end) : keys.sorted(matches);
+        }
+        long[] ids = new long[end - (int) from];
+        for (int i = 0; i < ids.length; i++) {
+            int position = (int) from + i;
+            ids[i] = current.id[rows[positions == null ? position : positions[position]]];
+        }
+        return new SnapshotPage(ids, matches, facets);
+    }
+
+    private ListingFacets facets(long[] categoryCounts, long inStockCount, long outOfStockCount) {
+        Map<String, Long> byCategory = new TreeMap<>();
+        for (int id = 0; id < categoryCounts.length - 1; id++) {
+            if (categoryCounts[id + 1] > 0) {
+                byCategory.put(categories.name(id), categoryCounts[id + 1]);
+            }
+        }
+        return new ListingFacets(byCategory, inStockCount, outOfStockCount);
+    }
+
+    public Map<String, Object> stats() {
+        ProductSnapshot current = current();
+        long bytes = current.estimatedBytes();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("products", current.size());
+        stats.put("categories", categories.size());
+        stats.put("estimatedBytes", bytes);
+        stats.put("bytesPerProduct", current.size() == 0 ? 0 : bytes / current.size());
+        return stats;
+    }
+
+    /**
+     * {@code facets} is null unless they were asked for.
+     */
+    public record SnapshotPage(long[] ids, long total, ListingFacets facets) {
+    }
+}
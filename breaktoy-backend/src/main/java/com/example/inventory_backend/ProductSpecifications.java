@@ -0,0 +1,152 @@
+package com.example.inventory_backend;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria building blocks for the product listing, so filtering, sorting and
+ * paging run in the database instead of over a fully loaded table.
+ */
+final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    static Specification<Product> filtered(String name, List<String> category, Boolean inStock) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (name != null && !name.isEmpty()) {
+                predicates.add(cb.like(cb.lower(root.get("name")),
+                        "%" + escapeLike(name.toLowerCase(Locale.ROOT)) + "%", '\\'));
+            }
+            if (category != null && !category.isEmpty()) {
+                predicates.add(root.get("category").in(category));
+            }
+            if (inStock != null) {
+                Path<Integer> quantity = root.get("quantityInStock");
+                predicates.add(inStock ? cb.gt(quantity, 0) : cb.equal(quantity, 0));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    static Specification<Product> idIn(long[] ids) {
+        return (root, query, cb) -> {
+            List<Long> values = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                values.add(id);
+            }
+            return root.get("id").in(values);
+        };
+    }
+
+    /**
+     * Mirrors the old in-memory comparator chain: nulls last on ascending keys
+     * (and therefore first on descending ones, as {@code reversed()} did), case-insensitive
+     * name/category, and the id as a final tiebreaker standing in for the stable sort.
+     */
+    static Specification<Product> orderedBy(String sortBy, String order, String sortBy2, String order2) {
+        return (root, query, cb) -> {
+            if (Long.class.equals(query.getResultType())) {
+                return null; // count query, ordering is irrelevant
+            }
+            List<Order> orders = new ArrayList<>();
+            if (sortBy != null) {
+                addOrder(orders, root, cb, sortBy, order);
+            }
+            if (sortBy2 != null) {
+                addOrder(orders, root, cb, sortBy2, order2);
+            }
+            orders.add(cb.asc(root.get("id")));
+            query.orderBy(orders);
+            return null;
+        };
+    }
+
+    /**
+     * Seek predicate selecting the rows that come strictly after {@code cursor} in the
+     * ordering produced by {@link #orderedBy}, so keyset pages resume without an offset.
+     */
+    static Specification<Product> after(ProductCursor cursor) {
+        return (root, query, cb) -> {
+            Predicate predicate = cb.greaterThan(root.<Long>get("id"), cursor.id());
+            if (cursor.sortBy2() != null) {
+                predicate = seek(root, cb, cursor.sortBy2(), cursor.desc2(), cursor.key2(), predicate);
+            }
+            if (cursor.sortBy() != null) {
+                predicate = seek(root, cb, cursor.sortBy(), cursor.desc(), cursor.key(), predicate);
+            }
+            return predicate;
+        };
+    }
+
+    static boolean isDescending(String order) {
+        return "desc".equalsIgnoreCase(order);
+    }
+
+    /**
+     * Maps a requested sort field to the attribute it sorts on; unknown fields fall back
+     * to the id, as {@code getComparator} always did.
+     */
+    static String sortAttribute(String field) {
+        return switch (field) {
+            case "name", "category", "unitPrice", "quantityInStock", "expirationDate" -> field;
+            default -> "id";
+        };
+    }
+
+    static boolean isCaseInsensitive(String attribute) {
+        return "name".equals(attribute) || "category".equals(attribute);
+    }
+
+    static Expression<?> sortKey(Root<Product> root, CriteriaBuilder cb, String attribute) {
+        return isCaseInsensitive(attribute) ? cb.lower(root.get(attribute)) : root.get(attribute);
+    }
+
+    private static void addOrder(List<Order> orders, Root<Product> root, CriteriaBuilder cb,
+                                 String field, String order) {
+        String attribute = sortAttribute(field);
+        boolean desc = isDescending(order);
+        Expression<?> key = sortKey(root, cb, attribute);
+        if (!"id".equals(attribute)) {
+            Expression<Integer> nullsFlag = cb.<Integer>selectCase()
+                    .when(cb.isNull(root.get(attribute)), 1)
+                    .otherwise(0);
+            orders.add(desc ? cb.desc(nullsFlag) : cb.asc(nullsFlag));
+        }
+        orders.add(desc ? cb.desc(key) : cb.asc(key));
+    }
+
+    // (key after last) OR (key equal to last AND rest after last), honouring the null placement of addOrder
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seek(Root<Product> root, CriteriaBuilder cb, String attribute, boolean desc,
+                                  String key, Predicate rest) {
+        Path<?> path = root.get(attribute);
+        Comparable value = ProductCursor.parseKey(attribute, key);
+        if (value == null) {
+            Predicate after = desc ? cb.isNotNull(path) : cb.disjunction();
+            return cb.or(after, cb.and(cb.isNull(path), rest));
+        }
+        if (isCaseInsensitive(attribute)) {
+            value = ((String) value).toLowerCase(Locale.ROOT);
+        }
+        Expression keyExpression = sortKey(root, cb, attribute);
+        Predicate after = desc
+                ? cb.lessThan(keyExpression, value)
+                : cb.or(cb.greaterThan(keyExpression, value), cb.isNull(path));
+        return cb.or(after, cb.and(cb.equal(keyExpression, value), rest));
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
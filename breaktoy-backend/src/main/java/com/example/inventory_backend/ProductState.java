@@ -0,0 +1,24 @@
+package com.example.inventory_backend;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable copy of the fields of a {@link Product} that derived structures care about,
+ * taken before or after a mutation so listeners never look at a live entity.
+ */
+public record ProductState(Long id,
+                           String name,
+                           String category,
+                           Double unitPrice,
+                           Integer quantityInStock,
+                           LocalDate expirationDate) {
+
+    public static ProductState of(Product product) {
+        return new ProductState(product.getId(), product.getName(), product.getCategory(),
+                product.getUnitPrice(), product.getQuantityInStock(), product.getExpirationDate());
+    }
+
+    public ProductState withQuantityInStock(Integer quantity) {
+        return new ProductState(id, name, category, unitPrice, quantity, expirationDate);
+    }
+}
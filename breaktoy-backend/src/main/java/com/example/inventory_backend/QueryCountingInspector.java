@@ -0,0 +1,15 @@
+package com.example.inventory_backend;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares towards the current request.
+ */
+class QueryCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatistics.queryExecuted();
+        return sql;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.inventory_backend;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.List;
+
+/**
+ * The WebFlux variant of the {@code /products} API, active when the application starts
+ * with {@code spring.main.web-application-type=reactive}. The servlet controllers are
+ * switched off in that mode. The R2DBC pool opens the same H2 database as the JDBC data
+ * source, so both stacks see the same rows.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfiguration {
+
+    private static final String H2_PREFIX = "jdbc:h2:";
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionPool reactiveConnectionFactory(DataSourceProperties dataSource,
+                                             @Value("${inventory.reactive.max-connections:10}") int maxConnections) {
+        String url = dataSource.getUrl();
+        if (url == null || !url.startsWith(H2_PREFIX)) {
+            throw new IllegalStateException("The reactive stack only supports H2 databases, not " + url);
+        }
+        H2ConnectionConfiguration configuration = H2ConnectionConfiguration.builder()
+                .url(url.substring(H2_PREFIX.length()))
+                .username(dataSource.getUsername())
+                .password(dataSource.getPassword() == null ? "" : dataSource.getPassword())
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(new H2ConnectionFactory(configuration))
+                .maxSize(maxConnections)
+                .build());
+    }
+
+    @Bean
+    ReactiveProductRepository reactiveProductRepository(ConnectionPool reactiveConnectionFactory) {
+        return new ReactiveProductRepository(DatabaseClient.create(reactiveConnectionFactory));
+    }
+
+    @Bean
+    ReactiveProductHandler reactiveProductHandler(ReactiveProductRepository repository, ProductService productService,
+                                                  StockAdjustmentBuffer stockAdjustmentBuffer, Validator validator) {
+        return new ReactiveProductHandler(repository, productService, stockAdjustmentBuffer, validator);
+    }
+
+    // Fixed paths come before /{id}, which would otherwise capture them
+    @Bean
+    RouterFunction<ServerResponse> productRoutes(ReactiveProductHandler handler) {
+        return RouterFunctions.route()
+                .path("/products", builder -> builder
+                        .GET("", handler::getAllProducts)
+                        .POST("", handler::createProduct)
+                        .GET("/export", handler::exportProducts)
+                        .GET("/metrics", handler::getInventoryMetrics)
+                        .GET("/metrics/history", handler::getInventoryMetricsHistory)
+                        .GET("/{id}", handler::getProductById)
+                        .PUT("/{id}", handler::updateProduct)
+                        .DELETE("/{id}", handler::deleteProduct)
+                        .PUT("/{id}/instock", handler::markProductInStock)
+                        .POST("/{id}/outofstock", handler::markProductOutOfStock)
+                        .POST("/{id}/stock/adjust", handler::adjustStock))
+                .build();
+    }
+
+    // Same policy as the @CrossOrigin annotations on the servlet controllers
+    @Bean
+    CorsWebFilter productsCorsFilter() {
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.setAllowedOrigins(List.of("http://localhost:8080"));
+        cors.setAllowedMethods(List.of(HttpMethod.GET.name(), HttpMethod.POST.name(),
+                HttpMethod.PUT.name(), HttpMethod.DELETE.name()));
+        cors.addAllowedHeader(CorsConfiguration.ALL);
+        cors.setExposedHeaders(List.of(ProductController.TOTAL_COUNT_HEADER, ProductController.NEXT_CURSOR_HEADER));
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/products/**", cors);
+        return new CorsWebFilter(source);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.inventory_backend;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Handlers of the reactive {@code /products} routes. Reads go straight to R2DBC and stream
+ * their rows; as the H2 driver is synchronous underneath, {@link ReactiveProductRepository}
+ * runs them on the bounded elastic scheduler, where a slow client holds up a worker but not
+ * the event loop. Writes and the metrics still run through {@link ProductService}, so caches,
+ * the snapshot, metrics and history see the same change events as in the servlet stack.
+ * Those calls block too, so they also run on the bounded elastic scheduler.
+ */
+public class ReactiveProductHandler {
+
+    private final ReactiveProductRepository repository;
+    private final ProductService productService;
+    private final StockAdjustmentBuffer stockAdjustmentBuffer;
+    private final Validator validator;
+
+    public ReactiveProductHandler(ReactiveProductRepository repository, ProductService productService,
+                                  StockAdjustmentBuffer stockAdjustmentBuffer, Validator validator) {
+        this.repository = repository;
+        this.productService = productService;
+        this.stockAdjustmentBuffer = stockAdjustmentBuffer;
+        this.validator = validator;
+    }
+
+    // GET /products - same filters, sorting and offset paging as the servlet listing;
+    // Accept: application/x-ndjson streams one product per line instead of a JSON array
+    public Mono<ServerResponse> getAllProducts(ServerRequest request) {
+        String name = request.queryParam("name").orElse(null);
+        List<String> category = listParam(request, "category");
+        Boolean inStock = request.queryParam("inStock").map(Boolean::valueOf).orElse(null);
+        String sortBy = request.queryParam("sortBy").orElse(null);
+        String sortBy2 = request.queryParam("sortBy2").orElse(null);
+        String order = request.queryParam("order").orElse("asc");
+        String order2 = request.queryParam("order2").orElse("asc");
+        int page;
+        int size;
+        try {
+            page = request.queryParam("page").map(Integer::parseInt).orElse(0);
+            size = request.queryParam("size").map(Integer::parseInt).orElse(10);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("page", "page and size must be integers"));
+        }
+        MediaType contentType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        if (page < 0 || size < 1) {
+            return ServerResponse.ok().header(ProductController.TOTAL_COUNT_HEADER, "0")
+                    .contentType(contentType).bodyValue(List.of());
+        }
+        return repository.count(name, category, inStock)
+                .flatMap(total -> ServerResponse.ok()
+                        .header(ProductController.TOTAL_COUNT_HEADER, String.valueOf(total))
+                        .contentType(contentType)
+                        .body(repository.findPage(name, category, inStock, sortBy, sortBy2, order, order2, page, size),
+                                Product.class));
+    }
+
+    public Mono<ServerResponse> getProductById(ServerRequest request) {
+        return withId(request, id -> repository.findById(id)
+                .flatMap(product -> ServerResponse.ok().bodyValue(product))
+                .switchIfEmpty(ServerResponse.notFound().build()));
+    }
+
+    // GET /products/export - NDJSON, written as fast as the client reads it
+    public Mono<ServerResponse> exportProducts(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(repository.streamAll(), Product.class);
+    }
+
+    public Mono<ServerResponse> getInventoryMetrics(ServerRequest request) {
+        return blocking(() -> Optional.ofNullable(productService.getInventoryMetricsEtag()))
+                .flatMap(etag -> {
+                    String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+                    if (etag.isPresent() && ifNoneMatch != null && ProductController.matchesAny(ifNoneMatch, etag.get())) {
+                        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag.get())
+                                .cacheControl(CacheControl.noCache()).build();
+                    }
+                    return blocking(productService::readInventoryMetrics).flatMap(read -> {
+                        if (read.stale()) {
+                            return ServerResponse.ok().header(HttpHeaders.WARNING, ProductController.STALE_WARNING)
+                                    .cacheControl(CacheControl.noCache()).bodyValue(read.value());
+                        }
+                        return Optional.ofNullable(productService.getInventoryMetricsEtag(read.value()))
+                                .map(tag -> ServerResponse.ok().eTag(tag).cacheControl(CacheControl.noCache()))
+                                .orElseGet(ServerResponse::ok)
+                                .bodyValue(read.value());
+                    });
+                })
+                .onErrorResume(ReactiveProductHandler::isMapped, ReactiveProductHandler::errorResponse);
+    }
+
+    // In-memory buckets only, so it runs on the event loop
+    public Mono<ServerResponse> getInventoryMetricsHistory(ServerRequest request) {
+        try {
+            Instant to = request.queryParam("to").map(Instant::parse).orElseGet(Instant::now);
+            Instant from = request.queryParam("from").map(Instant::parse).orElse(to.minus(Duration.ofHours(1)));
+            Duration step = ProductController.parseStep(request.queryParam("step").orElse(null));
+            return ServerResponse.ok().bodyValue(productService.getInventoryMetricsHistory(from, to, step,
+                    listParam(request, "category")));
+        } catch (DateTimeParseException | InvalidMetricsRangeException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("range", e.getMessage()));
+        }
+    }
+
+    public Mono<ServerResponse> createProduct(ServerRequest request) {
+        return request.bodyToMono(Product.class).flatMap(product -> validated(product,
+                () -> blocking(() -> productService.createProduct(product))
+                        .flatMap(saved -> ServerResponse.ok().bodyValue(saved))));
+    }
+
+    public Mono<ServerResponse> updateProduct(ServerRequest request) {
+        return withId(request, id -> request.bodyToMono(Product.class).flatMap(product -> validated(product,
+                () -> found(blocking(() -> productService.updateProduct(id, product))))));
+    }
+
+    public Mono<ServerResponse> deleteProduct(ServerRequest request) {
+        return withId(request, id -> blocking(() -> productService.deleteProduct(id))
+                .flatMap(deleted -> deleted ? ServerResponse.noContent().build() : ServerResponse.notFound().build()));
+    }
+
+    public Mono<ServerResponse> markProductInStock(ServerRequest request) {
+        int quantity = intParam(request, "quantity").orElse(10);
+        return withId(request, id -> found(blocking(() -> productService.markProductInStock(id, quantity))));
+    }
+
+    public Mono<ServerResponse> markProductOutOfStock(ServerRequest request) {
+        return withId(request, id -> found(blocking(() -> productService.markProductOutOfStock(id))));
+    }
+
+    public Mono<ServerResponse> adjustStock(ServerRequest request) {
+        Optional<Integer> delta = intParam(request, "delta");
+        if (delta.isEmpty()) {
+            return ServerResponse.badRequest().bodyValue(Map.of("delta", "delta is required"));
+        }
+        if (stockAdjustmentBuffer.isEnabled()) {
+            return withId(request, id -> {
+                stockAdjustmentBuffer.submit(id, delta.get());
+                return ServerResponse.accepted().build();
+            });
+        }
+        return withId(request, id -> found(blocking(() -> productService.adjustStock(id, delta.get()))));
+    }
+
+    private static Mono<ServerResponse> withId(ServerRequest request, Function<Long, Mono<ServerResponse>> handler) {
+        long id;
+        try {
+            id = Long.parseLong(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("id", "id must be a number"));
+        }
+        return handler.apply(id).onErrorResume(ReactiveProductHandler::isMapped, ReactiveProductHandler::errorResponse);
+    }
+
+    private Mono<ServerResponse> validated(Product product, Supplier<Mono<ServerResponse>> action) {
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return action.get().onErrorResume(ReactiveProductHandler::isMapped, ReactiveProductHandler::errorResponse);
+        }
+        Map<String, String> errors = new HashMap<>();
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return ServerResponse.badRequest().bodyValue(errors);
+    }
+
+    private static Mono<ServerResponse> found(Mono<Optional<Product>> result) {
+        return result.flatMap(product -> product
+                .map(value -> ServerResponse.ok().bodyValue(value))
+                .orElseGet(() -> ServerResponse.notFound().build()));
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // The same status codes as ProductController's exception handlers
+    private static boolean isMapped(Throwable error) {
+        return error instanceof InsufficientStockException
+                || error instanceof OptimisticLockingFailureException
+                || error instanceof CannotCreateTransactionException
+                || error instanceof ServerBusyException;
+    }
+
+    private static Mono<ServerResponse> errorResponse(Throwable error) {
+        if (error instanceof InsufficientStockException) {
+            return ServerResponse.status(HttpStatus.CONFLICT).bodyValue(Map.of("quantityInStock", error.getMessage()));
+        }
+        if (error instanceof OptimisticLockingFailureException) {
+            return ServerResponse.status(HttpStatus.CONFLICT)
+                    .bodyValue(Map.of("version", "Product was modified concurrently, reload it and retry"));
+        }
+        if (error instanceof ServerBusyException) {
+            return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1")
+                    .bodyValue(Map.of("server", error.getMessage()));
+        }
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                .bodyValue(Map.of("database", "Too many concurrent requests, retry shortly"));
+    }
+
+    private static Optional<Integer> intParam(ServerRequest request, String name) {
+        try {
+            return request.queryParam(name).map(Integer::parseInt);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be an integer");
+        }
+    }
+
+    // Repeated and comma-separated values both work, as with @RequestParam List<String>
+    private static List<String> listParam(ServerRequest request, String name) {
+        List<String> values = request.queryParams().get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        List<String> split = new ArrayList<>();
+        for (String value : values) {
+            for (String part : value.split(",")) {
+                if (!part.isEmpty()) {
+                    split.add(part);
+                }
+            }
+        }
+        return split;
+    }
+}
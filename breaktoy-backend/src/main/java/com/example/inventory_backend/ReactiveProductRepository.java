@@ -0,0 +1,146 @@
+package com.example.inventory_backend;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * R2DBC reads of the product table for the reactive stack. Filters and ordering follow
+ * {@link ProductSpecifications}, so both stacks return the same listing for the same request.
+ * <p>
+ * The r2dbc-h2 driver executes each query synchronously on the thread that subscribes (and
+ * fetches further rows on the thread that requests them). Every publisher here therefore
+ * subscribes on the bounded elastic scheduler, so a slow count, page or export occupies one
+ * of its workers instead of a Netty event-loop thread.
+ */
+public class ReactiveProductRepository {
+
+    private static final String COLUMNS =
+            "id, name, category, unit_price, quantity_in_stock, expiration_date, created_at, updated_at, version";
+
+    private final DatabaseClient client;
+
+    public ReactiveProductRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<Product> findById(long id) {
+        return client.sql("select " + COLUMNS + " from product where id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Long> count(String name, List<String> category, Boolean inStock) {
+        Filter filter = Filter.of(name, category, inStock);
+        return filter.bind(client.sql("select count(*) from product" + filter.where))
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Flux<Product> findPage(String name, List<String> category, Boolean inStock,
+                                  String sortBy, String sortBy2, String order, String order2,
+                                  int page, int size) {
+        Filter filter = Filter.of(name, category, inStock);
+        String sql = "select " + COLUMNS + " from product" + filter.where
+                + orderBy(sortBy, order, sortBy2, order2) + " limit :limit offset :offset";
+        return filter.bind(client.sql(sql))
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveProductRepository::toProduct)
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Rows are emitted as the client consumes them, in id order
+    public Flux<Product> streamAll() {
+        return client.sql("select " + COLUMNS + " from product order by id")
+                .map(ReactiveProductRepository::toProduct)
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static String orderBy(String sortBy, String order, String sortBy2, String order2) {
+        List<String> orders = new ArrayList<>();
+        if (sortBy != null) {
+            addOrder(orders, sortBy, order);
+        }
+        if (sortBy2 != null) {
+            addOrder(orders, sortBy2, order2);
+        }
+        orders.add("id asc");
+        return " order by " + String.join(", ", orders);
+    }
+
+    // Same null placement and case folding as ProductSpecifications.addOrder
+    private static void addOrder(List<String> orders, String field, String order) {
+        String attribute = ProductSpecifications.sortAttribute(field);
+        String direction = ProductSpecifications.isDescending(order) ? " desc" : " asc";
+        String column = column(attribute);
+        if (!"id".equals(attribute)) {
+            orders.add("case when " + column + " is null then 1 else 0 end" + direction);
+        }
+        orders.add((ProductSpecifications.isCaseInsensitive(attribute) ? "lower(" + column + ")" : column) + direction);
+    }
+
+    private static String column(String attribute) {
+        return switch (attribute) {
+            case "unitPrice" -> "unit_price";
+            case "quantityInStock" -> "quantity_in_stock";
+            case "expirationDate" -> "expiration_date";
+            default -> attribute;
+        };
+    }
+
+    private static Product toProduct(Readable row) {
+        Product product = new Product();
+        product.setId(row.get("id", Long.class));
+        product.setName(row.get("name", String.class));
+        product.setCategory(row.get("category", String.class));
+        product.setUnitPrice(row.get("unit_price", Double.class));
+        product.setQuantityInStock(row.get("quantity_in_stock", Integer.class));
+        product.setExpirationDate(row.get("expiration_date", LocalDate.class));
+        product.setCreatedAt(row.get("created_at", LocalDate.class));
+        product.setUpdatedAt(row.get("updated_at", LocalDate.class));
+        product.setVersion(row.get("version", Long.class));
+        return product;
+    }
+
+    private record Filter(String where, Map<String, Object> parameters) {
+
+        static Filter of(String name, List<String> category, Boolean inStock) {
+            List<String> predicates = new ArrayList<>();
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            if (name != null && !name.isEmpty()) {
+                predicates.add("lower(name) like :name escape '\\'");
+                parameters.put("name", "%" + ProductSpecifications.escapeLike(name.toLowerCase(Locale.ROOT)) + "%");
+            }
+            if (category != null && !category.isEmpty()) {
+                predicates.add("category in (:category)");
+                parameters.put("category", category);
+            }
+            if (inStock != null) {
+                predicates.add(inStock ? "quantity_in_stock > 0" : "quantity_in_stock = 0");
+            }
+            return new Filter(predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates), parameters);
+        }
+
+        DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+            for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+                spec = spec.bind(parameter.getKey(), parameter.getValue());
+            }
+            return spec;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.inventory_backend;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Guards the expensive read paths (metrics, listings) in two steps:
+ * <ol>
+ *   <li>Concurrent requests with the same normalized key share one in-flight computation.</li>
+ *   <li>Each computation needs one of {@code inventory.admission.max-concurrent} permits.
+ *       Up to {@code max-queued} callers wait at most {@code queue-timeout} for a permit.
+ *       Anyone beyond that is rejected straight away.</li>
+ * </ol>
+ * A rejected caller gets the last result computed for its key, if one is kept
+ * ({@code stale-results}), marked as stale. Otherwise it gets a {@link ServerBusyException},
+ * answered with 429. Overload then sheds work early instead of piling up allocations until
+ * the heap thrashes.
+ */
+@Component
+public class ReadAdmission {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+    private final Cache<Key, Object> lastGood;
+    private final SingleFlight<Key, Object> flights = new SingleFlight<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder servedStale = new LongAdder();
+
+    public ReadAdmission(@Value("${inventory.admission.max-concurrent:8}") int maxConcurrent,
+                         @Value("${inventory.admission.max-queued:64}") int maxQueued,
+                         @Value("${inventory.admission.queue-timeout:1s}") Duration queueTimeout,
+                         @Value("${inventory.admission.stale-results:true}") boolean staleResults,
+                         @Value("${inventory.admission.stale-max-size:1000}") long staleMaxSize,
+                         @Value("${inventory.admission.stale-ttl:5m}") Duration staleTtl) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.lastGood = staleResults
+                ? Caffeine.newBuilder().maximumSize(staleMaxSize).expireAfterWrite(staleTtl).build()
+                : null;
+    }
+
+    /**
+     * Computes {@code loader} for {@code key} of {@code endpoint} under coalescing and
+     * admission control.
+     *
+     * @throws ServerBusyException when no permit was available and no earlier result is kept
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> read(String endpoint, Object key, Supplier<T> loader) {
+        Key flightKey = new Key(endpoint, key);
+        boolean[] joined = new boolean[1];
+        try {
+            T value = (T) flights.execute(flightKey, () -> admit(flightKey, loader), () -> {
+                coalesced.increment();
+                joined[0] = true;
+            });
+            return new Result<>(value, false, joined[0]);
+        } catch (ServerBusyException e) {
+            Object stale = lastGood == null ? null : lastGood.getIfPresent(flightKey);
+            if (stale == null) {
+                throw e;
+            }
+            servedStale.increment();
+            return new Result<>((T) stale, true, joined[0]);
+        }
+    }
+
+    private Object admit(Key key, Supplier<?> loader) {
+        if (!acquire()) {
+            rejected.increment();
+            throw new ServerBusyException("Too many expensive requests in progress, retry shortly");
+        }
+        admitted.increment();
+        try {
+            Object value = loader.get();
+            if (lastGood != null && value != null) {
+                lastGood.put(key, value);
+            }
+            return value;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        queued.increment();
+        try {
+            return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("maxQueued", maxQueued);
+        stats.put("inFlight", maxConcurrent - permits.availablePermits());
+        stats.put("waiting", waiting.get());
+        stats.put("admitted", admitted.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("queued", queued.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("servedStale", servedStale.sum());
+        return stats;
+    }
+
+    /**
+     * A value from {@link #read}. A {@code stale} one is an earlier result, served because
+     * the caller was not admitted. A {@code joined} one came from a computation another
+     * caller started, possibly before a write this caller has already seen. Only a
+     * {@link #fresh()} value may be cached or tagged as current.
+     */
+    public record Result<T>(T value, boolean stale, boolean joined) {
+
+        public boolean fresh() {
+            return !stale && !joined;
+        }
+    }
+
+    private record Key(String endpoint, Object key) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.inventory_backend;
+
+/**
+ * Per-request counters (SQL statements, entities hydrated, rows serialized) collected
+ * from Hibernate and the JSON converter and reported by {@link RequestStatisticsInterceptor}.
+ * Calls outside a request are ignored.
+ */
+final class RequestStatistics {
+
+    // Bound to the request thread, which is also correct for virtual threads
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private long queries;
+    private long entitiesLoaded;
+    private long rowsReturned = -1;
+
+    private RequestStatistics() {
+    }
+
+    static void begin() {
+        CURRENT.set(new RequestStatistics());
+    }
+
+    static RequestStatistics end() {
+        RequestStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    static void queryExecuted() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.queries++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entitiesLoaded++;
+        }
+    }
+
+    static void rowsReturned(long rows) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.rowsReturned = rows;
+        }
+    }
+
+    long getQueries() {
+        return queries;
+    }
+
+    long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    /**
+     * Rows in the serialized response, or -1 when the body was not a product or a list.
+     */
+    long getRowsReturned() {
+        return rowsReturned;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.inventory_backend;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the {@link RequestStatistics} of every handled request per endpoint, and flags
+ * requests that hydrate far more entities than they return, e.g. loading 500k rows to
+ * return 10.
+ */
+class RequestStatisticsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestStatisticsInterceptor.class);
+
+    private final MeterRegistry registry;
+    private final long overfetchRatio;
+    private final long overfetchMinRows;
+
+    RequestStatisticsInterceptor(MeterRegistry registry, long overfetchRatio, long overfetchMinRows) {
+        this.registry = registry;
+        this.overfetchRatio = overfetchRatio;
+        this.overfetchMinRows = overfetchMinRows;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics.begin();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RequestStatistics.end(); // streaming responses continue on another thread
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestStatistics statistics = RequestStatistics.end();
+        if (statistics == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("uri", pattern == null ? "UNKNOWN" : pattern.toString(), "method", request.getMethod());
+        summary("inventory.request.queries", "statements", tags).record(statistics.getQueries());
+        summary("inventory.request.rows.loaded", "rows", tags).record(statistics.getEntitiesLoaded());
+        long returned = statistics.getRowsReturned();
+        if (returned >= 0) {
+            summary("inventory.request.rows.returned", "rows", tags).record(returned);
+        }
+        long loaded = statistics.getEntitiesLoaded();
+        if (loaded >= overfetchMinRows && loaded > overfetchRatio * Math.max(1, returned)) {
+            Counter.builder("inventory.request.overfetch").tags(tags).register(registry).increment();
+            log.warn("{} {} loaded {} entities to return {} rows using {} statements",
+                    request.getMethod(), pattern, loaded, Math.max(0, returned), statistics.getQueries());
+        }
+    }
+
+    private DistributionSummary summary(String name, String unit, Tags tags) {
+        return DistributionSummary.builder(name).baseUnit(unit).tags(tags).register(registry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.inventory_backend;
+
+/**
+ * Compares two rows of a {@link ProductSnapshot} by index, without boxing.
+ */
+@FunctionalInterface
+interface RowComparator {
+
+    int compare(int a, int b);
+
+    /**
+     * Stable merge sort of {@code rows[0..n)}.
+     */
+    static void sort(int[] rows, int n, RowComparator comparator) {
+        int[] buffer = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int from = 0; from < n - width; from += 2 * width) {
+                int mid = from + width;
+                int to = Math.min(from + 2 * width, n);
+                if (comparator.compare(rows[mid - 1], rows[mid]) <= 0) {
+                    continue; // already in order
+                }
+                int i = from;
+                int j = mid;
+                int k = from;
+                while (i < mid && j < to) {
+                    buffer[k++] = comparator.compare(rows[j], rows[i]) < 0 ? rows[j++] : rows[i++];
+                }
+                while (i < mid) {
+                    buffer[k++] = rows[i++];
+                }
+                while (j < to) {
+                    buffer[k++] = rows[j++];
+                }
+                System.arraycopy(buffer, from, rows, from, to - from);
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.inventory_backend;
+
+import java.util.Arrays;
+
+/**
+ * Listing order over a set of matched snapshot rows, precompiled into one {@code long}
+ * key per row and sort level so that comparisons are plain {@code Long.compare} calls.
+ * Missing values map to {@link Long#MAX_VALUE} (last ascending, first descending, like
+ * the database ordering); names compare on a packed three-char prefix and only look at
+ * the full string on prefix ties. Positions are the final tiebreaker, so the order is
+ * total and equal to a stable sort of rows given in id order.
+ */
+final class RowSortKeys implements RowComparator {
+
+    private static final long MISSING = Long.MAX_VALUE;
+
+    private final Level[] levels;
+
+    private RowSortKeys(Level[] levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Keys for {@code rows[0..n)}; the comparator then works on positions in that range.
+     */
+    static RowSortKeys of(ProductSnapshot snapshot, CategoryDictionary categories, int[] rows, int n,
+                          String sortBy, String order, String sortBy2, String order2) {
+        Level[] levels = new Level[(sortBy != null ? 1 : 0) + (sortBy2 != null ? 1 : 0)];
+        int level = 0;
+        if (sortBy != null) {
+            levels[level++] = level(snapshot, categories, rows, n, sortBy, order);
+        }
+        if (sortBy2 != null) {
+            levels[level] = level(snapshot, categories, rows, n, sortBy2, order2);
+        }
+        return new RowSortKeys(levels);
+    }
+
+    @Override
+    public int compare(int a, int b) {
+        for (Level level : levels) {
+            int result = Long.compare(level.keys[a], level.keys[b]);
+            if (result == 0 && level.names != null && level.keys[a] != MISSING) {
+                result = level.names[a].compareTo(level.names[b]);
+            }
+            if (result != 0) {
+                return level.desc ? -result : result;
+            }
+        }
+        return Integer.compare(a, b);
+    }
+
+    /**
+     * Positions {@code 0..n)} in listing order, fully sorted.
+     */
+    int[] sorted(int n) {
+        int[] positions = identity(n);
+        RowComparator.sort(positions, n, this);
+        return positions;
+    }
+
+    /**
+     * The first {@code k} positions in listing order, selected with a bounded max-heap in
+     * O(n log k) instead of sorting all {@code n}.
+     */
+    int[] top(int n, int k) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        int[] heap = new int[k];
+        int size = 0;
+        for (int position = 0; position < n; position++) {
+            if (size < k) {
+                heap[size] = position;
+                siftUp(heap, size++);
+            } else if (compare(position, heap[0]) < 0) {
+                heap[0] = position;
+                siftDown(heap, size);
+            }
+        }
+        RowComparator.sort(heap, size, this);
+        return size == k ? heap : Arrays.copyOf(heap, size);
+    }
+
+    private void siftUp(int[] heap, int index) {
+        int value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(heap[parent], value) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int value = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (compare(heap[child], value) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    private static Level level(ProductSnapshot s, CategoryDictionary categories, int[] rows, int n,
+                               String field, String order) {
+        long[] keys = new long[n];
+        String[] names = null;
+        switch (ProductSpecifications.sortAttribute(field)) {
+            case "name" -> {
+                names = new String[n];
+                for (int i = 0; i < n; i++) {
+                    names[i] = s.nameKey[rows[i]];
+                    keys[i] = names[i] == null ? MISSING : prefix(names[i]);
+                }
+            }
+            case "category" -> {
+                long[] rank = categoryRanks(categories);
+                for (int i = 0; i < n; i++) {
+                    int category = s.categoryId[rows[i]];
+                    keys[i] = category < 0 || category >= rank.length ? MISSING : rank[category];
+                }
+            }
+            case "unitPrice" -> {
+                for (int i = 0; i < n; i++) {
+                    double price = s.unitPrice[rows[i]];
+                    keys[i] = Double.isNaN(price) ? MISSING : sortableBits(price);
+                }
+            }
+            case "quantityInStock" -> {
+                for (int i = 0; i < n; i++) {
+                    int quantity = s.quantity[rows[i]];
+                    keys[i] = quantity == ProductSnapshot.NULL_INT ? MISSING : quantity;
+                }
+            }
+            case "expirationDate" -> {
+                for (int i = 0; i < n; i++) {
+                    int day = s.expirationDay[rows[i]];
+                    keys[i] = day == ProductSnapshot.NULL_INT ? MISSING : day;
+                }
+            }
+            default -> {
+                for (int i = 0; i < n; i++) {
+                    keys[i] = s.id[rows[i]];
+                }
+            }
+        }
+        return new Level(keys, names, ProductSpecifications.isDescending(order));
+    }
+
+    // First three UTF-16 units, zero-padded, so shorter strings sort before their extensions
+    private static long prefix(String value) {
+        long key = 0;
+        for (int i = 0; i < 3; i++) {
+            key = (key << 16) | (i < value.length() ? value.charAt(i) : 0);
+        }
+        return key;
+    }
+
+    // Order-preserving mapping of a double onto a signed long, consistent with Double.compare
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    // Dense rank of every dictionary id by its lowercase form; equal forms share a rank
+    private static long[] categoryRanks(CategoryDictionary categories) {
+        int size = categories.size();
+        int[] ids = identity(size);
+        RowComparator.sort(ids, size, (a, b) -> categories.sortKey(a).compareTo(categories.sortKey(b)));
+        long[] rank = new long[size];
+        long current = -1;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || !categories.sortKey(ids[i]).equals(categories.sortKey(ids[i - 1]))) {
+                current++;
+            }
+            rank[ids[i]] = current;
+        }
+        return rank;
+    }
+
+    private static int[] identity(int n) {
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            positions[i] = i;
+        }
+        return positions;
+    }
+
+    private record Level(long[] keys, String[] names, boolean desc) {
+    }
+}
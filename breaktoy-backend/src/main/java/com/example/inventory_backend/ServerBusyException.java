@@ -0,0 +1,8 @@
+package com.example.inventory_backend;
+
+public class ServerBusyException extends RuntimeException {
+
+    public ServerBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.inventory_backend;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Times the stages of a service operation as {@code inventory.stage} tagged with the
+ * operation and stage, so each stage gets its own latency distribution.
+ */
+@Component
+public class StageTimers {
+
+    static final String METER = "inventory.stage";
+
+    private final MeterRegistry registry;
+
+    public StageTimers(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T record(String operation, String stage, Supplier<T> body) {
+        return timer(operation, stage).record(body);
+    }
+
+    Timer timer(String operation, String stage) {
+        return Timer.builder(METER)
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .register(registry);
+    }
+}
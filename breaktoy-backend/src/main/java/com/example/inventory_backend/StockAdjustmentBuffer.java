@@ -0,0 +1,96 @@
+package com.example.inventory_backend;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional write-coalescing for stock adjustments on hot SKUs. When
+ * {@code inventory.stock.coalescing.enabled=true}, deltas are summed per product (the map's
+ * per-bin locking keeps producers on different SKUs apart) and applied as one conditional
+ * UPDATE per product every flush interval. A merged delta that would make the stock
+ * negative, or that targets an unknown product, is rejected as a whole and counted; one
+ * whose write fails for any other reason stays buffered for the next flush.
+ */
+@Component
+public class StockAdjustmentBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(StockAdjustmentBuffer.class);
+
+    private final ProductService productService;
+    private final boolean enabled;
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong flushedWrites = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+
+    public StockAdjustmentBuffer(ProductService productService,
+                                 @Value("${inventory.stock.coalescing.enabled:false}") boolean enabled) {
+        this.productService = productService;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(Long id, int delta) {
+        pending.merge(id, (long) delta, Long::sum);
+        submitted.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock.coalescing.flush-interval:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        for (Long id : pending.keySet()) {
+            Long delta = pending.remove(id);
+            if (delta == null || delta == 0) {
+                continue;
+            }
+            try {
+                if (productService.adjustStock(id, Math.toIntExact(delta)).isPresent()) {
+                    flushedWrites.incrementAndGet();
+                } else {
+                    rejected.incrementAndGet();
+                    log.warn("Dropped coalesced stock adjustment of {} for product {}: no such product", delta, id);
+                }
+            } catch (InsufficientStockException | ArithmeticException e) {
+                rejected.incrementAndGet();
+                log.warn("Dropped coalesced stock adjustment of {} for product {}: {}", delta, id, e.getMessage());
+            } catch (RuntimeException e) {
+                // Already answered with 202, so a failed write goes back into the buffer for the next flush
+                pending.merge(id, delta, Long::sum);
+                retried.incrementAndGet();
+                log.warn("Kept coalesced stock adjustment of {} for product {} after a failed write: {}",
+                        delta, id, e.getMessage());
+            }
+        }
+    }
+
+    // Deltas accepted since the last flush would otherwise be lost with the JVM
+    @PreDestroy
+    public void stop() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("Shutting down with coalesced stock adjustments pending for {} products", pending.size());
+        }
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of("submitted", submitted.get(),
+                "flushedWrites", flushedWrites.get(),
+                "rejected", rejected.get(),
+                "retried", retried.get(),
+                "pendingProducts", (long) pending.size());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.inventory_backend;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a stock batch, with one result per operation in input order.
+ */
+public record StockBatchResult(int received, int updated, List<Item> results) {
+
+    public enum Status { UPDATED, NOT_FOUND, INSUFFICIENT_STOCK, DUPLICATE, INVALID }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Item(Long id, Status status, Integer quantityInStock, String message) {
+
+        static Item updated(Long id, int quantityInStock) {
+            return new Item(id, Status.UPDATED, quantityInStock, null);
+        }
+
+        static Item rejected(Long id, Status status, String message) {
+            return new Item(id, status, null, message);
+        }
+    }
+}
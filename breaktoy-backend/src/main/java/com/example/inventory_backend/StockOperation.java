@@ -0,0 +1,29 @@
+package com.example.inventory_backend;
+
+/**
+ * One entry of a stock batch: exactly one of {@code quantity} (set the stock),
+ * {@code delta} (add to it, never below zero) or {@code outOfStock: true}.
+ */
+public record StockOperation(Long id, Integer quantity, Integer delta, Boolean outOfStock) {
+
+    boolean isOutOfStock() {
+        return Boolean.TRUE.equals(outOfStock);
+    }
+
+    /**
+     * Why the operation cannot be applied, or null when it is well-formed.
+     */
+    String problem() {
+        if (id == null) {
+            return "Id is required";
+        }
+        int kinds = (quantity != null ? 1 : 0) + (delta != null ? 1 : 0) + (isOutOfStock() ? 1 : 0);
+        if (kinds != 1) {
+            return "Exactly one of quantity, delta or outOfStock is required";
+        }
+        if (quantity != null && quantity < 0) {
+            return "Quantity cannot be negative";
+        }
+        return null;
+    }
+}
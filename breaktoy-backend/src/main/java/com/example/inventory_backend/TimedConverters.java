@@ -0,0 +1,90 @@
+package com.example.inventory_backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson converters for JSON, CBOR and Smile that time response serialization per
+ * format and report how many rows a response carried. Each one subclasses the converter
+ * Boot would register by default and therefore replaces it.
+ */
+final class TimedConverters {
+
+    private TimedConverters() {
+    }
+
+    static final class Json extends MappingJackson2HttpMessageConverter {
+
+        private final Timer timer;
+
+        Json(ObjectMapper objectMapper, StageTimers stageTimers) {
+            super(objectMapper);
+            this.timer = stageTimers.timer("response.json", "serialize");
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            timed(object, timer, () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+
+    static final class Cbor extends MappingJackson2CborHttpMessageConverter {
+
+        private final Timer timer;
+
+        Cbor(ObjectMapper objectMapper, StageTimers stageTimers) {
+            super(objectMapper);
+            this.timer = stageTimers.timer("response.cbor", "serialize");
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            timed(object, timer, () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+
+    static final class Smile extends MappingJackson2SmileHttpMessageConverter {
+
+        private final Timer timer;
+
+        Smile(ObjectMapper objectMapper, StageTimers stageTimers) {
+            super(objectMapper);
+            this.timer = stageTimers.timer("response.smile", "serialize");
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            timed(object, timer, () -> super.writeInternal(object, type, outputMessage));
+        }
+    }
+
+    private static void timed(Object body, Timer timer, Write write) throws IOException {
+        if (body instanceof Collection<?> rows) {
+            RequestStatistics.rowsReturned(rows.size());
+        } else if (body instanceof ProductProjection projection) {
+            RequestStatistics.rowsReturned(projection.products().size());
+        } else if (body instanceof Product) {
+            RequestStatistics.rowsReturned(1);
+        }
+        long start = System.nanoTime();
+        try {
+            write.run();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void run() throws IOException;
+    }
+}
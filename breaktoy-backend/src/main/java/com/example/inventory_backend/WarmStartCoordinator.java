@@ -0,0 +1,86 @@
+package com.example.inventory_backend;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rebuilds every derived in-memory structure from the database in parallel once the
+ * context is ready, then warms the first listing page. Boot only reports the readiness
+ * state as ACCEPTING_TRAFFIC after this returns, so {@code /actuator/health/readiness}
+ * stays down until the node can answer from warm structures.
+ */
+@Component
+public class WarmStartCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmStartCoordinator.class);
+
+    private final InventoryMetricsStore metricsStore;
+    private final ProductNameIndex nameIndex;
+    private final ProductSnapshotStore snapshotStore;
+    private final ExpiringStockReport expiringStockReport;
+    private final ProductService productService;
+
+    private volatile Map<String, Long> timings = Map.of();
+
+    public WarmStartCoordinator(InventoryMetricsStore metricsStore,
+                                ProductNameIndex nameIndex,
+                                ProductSnapshotStore snapshotStore,
+                                ExpiringStockReport expiringStockReport,
+                                ProductService productService) {
+        this.metricsStore = metricsStore;
+        this.nameIndex = nameIndex;
+        this.snapshotStore = snapshotStore;
+        this.expiringStockReport = expiringStockReport;
+        this.productService = productService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        Map<String, Long> elapsed = new ConcurrentHashMap<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<CompletableFuture<Void>> steps = List.of(
+                    step("metrics", metricsStore::rebuild, elapsed, executor),
+                    step("nameIndex", nameIndex::rebuild, elapsed, executor),
+                    step("snapshot", snapshotStore::rebuild, elapsed, executor),
+                    step("expiring", expiringStockReport::rebuild, elapsed, executor));
+            CompletableFuture.allOf(steps.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        // Needs the name index, so it runs last
+        long listingStart = System.nanoTime();
+        productService.getAllProducts(null, null, null, null, null, "asc", "asc", 0, 10);
+        elapsed.put("listing", (System.nanoTime() - listingStart) / 1_000_000);
+        elapsed.put("total", (System.nanoTime() - start) / 1_000_000);
+        timings = Map.copyOf(elapsed);
+        log.info("Warm start finished in {} ms: {}", elapsed.get("total"), elapsed);
+    }
+
+    /**
+     * Milliseconds spent on each warm-up step during the last start.
+     */
+    public Map<String, Long> getTimings() {
+        return timings;
+    }
+
+    private static CompletableFuture<Void> step(String name, Runnable rebuild, Map<String, Long> elapsed,
+                                                ExecutorService executor) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            rebuild.run();
+            elapsed.put(name, (System.nanoTime() - start) / 1_000_000);
+        }, executor);
+    }
+}
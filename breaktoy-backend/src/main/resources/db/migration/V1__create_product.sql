@@ -0,0 +1,18 @@
+CREATE SEQUENCE product_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE product (
+    id                BIGINT           NOT NULL PRIMARY KEY,
+    name              VARCHAR(255),
+    category          VARCHAR(255),
+    unit_price        DOUBLE PRECISION,
+    quantity_in_stock INTEGER,
+    expiration_date   DATE,
+    created_at        DATE,
+    updated_at        DATE,
+    version           BIGINT
+);
+
+CREATE INDEX idx_product_expiration ON product (expiration_date, id);
+CREATE INDEX idx_product_category_expiration ON product (category, expiration_date);
+CREATE INDEX idx_product_name ON product (name);
+CREATE INDEX idx_product_quantity ON product (quantity_in_stock);
@@ -0,0 +1,14 @@
+CREATE SEQUENCE product_history_seq START WITH 1 INCREMENT BY 500;
+
+CREATE TABLE product_history (
+    id                BIGINT                      NOT NULL PRIMARY KEY,
+    product_id        BIGINT                      NOT NULL,
+    type              VARCHAR(16)                 NOT NULL,
+    changed_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    category          VARCHAR(255),
+    quantity_in_stock INTEGER,
+    quantity_delta    INTEGER                     NOT NULL
+);
+
+CREATE INDEX idx_product_history_product ON product_history (product_id, changed_at);
+CREATE INDEX idx_product_history_changed ON product_history (changed_at);
@@ -0,0 +1,88 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static com.example.inventory_backend.TestProducts.product;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two application contexts sharing one in-memory database and joined through the
+ * loopback transport, each owning one of two metric partitions.
+ */
+public class ClusterCoordinatorTest {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    public void setUp() {
+        String cluster = "test-" + UUID.randomUUID();
+        nodeA = start(cluster, "a", 0);
+        nodeB = start(cluster, "b", 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    public void testMetrics_MergedFromBothPartitions() {
+        ProductService serviceA = nodeA.getBean(ProductService.class);
+        ProductService serviceB = nodeB.getBean(ProductService.class);
+        for (int i = 0; i < 6; i++) {
+            (i % 2 == 0 ? serviceA : serviceB).createProduct(product("Item " + i, "Dairy", 2.0, 5));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertEquals(30L, serviceA.getInventoryMetrics().totalStock());
+            assertEquals(30L, serviceB.getInventoryMetrics().totalStock());
+        });
+        long partialA = nodeA.getBean(InventoryMetricsStore.class).getMetrics().totalStock();
+        long partialB = nodeB.getBean(InventoryMetricsStore.class).getMetrics().totalStock();
+        assertEquals(30L, partialA + partialB);
+        assertEquals(new InventoryMetricsSnapshot.Partitions(2, 2), serviceA.getInventoryMetrics().partitions());
+        // Merged metrics depend on the peers, so they carry no entity tag
+        assertNull(serviceA.getInventoryMetricsEtag());
+    }
+
+    @Test
+    public void testRemoteChange_InvalidatesPeerCache() {
+        ProductService serviceA = nodeA.getBean(ProductService.class);
+        ProductService serviceB = nodeB.getBean(ProductService.class);
+        Product created = serviceA.createProduct(product("Milk", "Dairy", 1.5, 10));
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> serviceB.findById(created.getId()).isPresent());
+
+        serviceA.markProductOutOfStock(created.getId());
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertEquals(0, serviceB.findById(created.getId()).orElseThrow().getQuantityInStock()));
+        assertEquals(0L, nodeA.getBean(ClusterCoordinator.class).stats().get("changesReceived"));
+        assertEquals(2L, nodeB.getBean(ClusterCoordinator.class).stats().get("changesReceived"));
+    }
+
+    private static ConfigurableApplicationContext start(String cluster, String nodeId, int partition) {
+        return new SpringApplicationBuilder(InventoryBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + cluster + ";DB_CLOSE_DELAY=-1",
+                        "--spring.main.banner-mode=off",
+                        "--spring.jmx.enabled=false",
+                        "--spring.devtools.restart.enabled=false",
+                        "--inventory.cluster.transport=loopback",
+                        "--inventory.cluster.name=" + cluster,
+                        "--inventory.cluster.node-id=" + nodeId,
+                        "--inventory.cluster.partitions=2",
+                        "--inventory.cluster.partition-index=" + partition);
+    }
+}
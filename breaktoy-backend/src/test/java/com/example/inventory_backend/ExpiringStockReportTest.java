@@ -0,0 +1,113 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExpiringStockReportTest {
+
+    private final LocalDate today = LocalDate.now();
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private ExpiringStockReport report;
+
+    @BeforeEach
+    public void setUp() {
+        when(repository.aggregateExpiring(any(), any())).thenReturn(List.of(
+                new Object[]{"Dairy", today, 2L, 10L, 25.0},
+                new Object[]{"Dairy", today.plusDays(3), 1L, 4L, 8.0},
+                new Object[]{"Bakery", today.plusDays(10), 1L, 5L, 5.0}));
+        report = new ExpiringStockReport(repository, 30);
+        report.rebuild();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSummary_OnlyCountsTheRequestedWindow() {
+        Map<String, Object> summary = report.summary(7);
+
+        Map<String, Object> totals = (Map<String, Object>) summary.get("totals");
+        assertEquals(3L, totals.get("productCount"));
+        assertEquals(14L, totals.get("totalStock"));
+        assertEquals(33.0, (double) totals.get("valueAtRisk"), 1e-9);
+        Map<String, Object> byCategory = (Map<String, Object>) summary.get("byCategory");
+        assertEquals(1, byCategory.size());
+        assertEquals(8, ((List<?>) summary.get("byDay")).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOnProductChange_MovesStockBetweenBuckets() {
+        ProductState before = new ProductState(1L, "Milk", "Dairy", 2.0, 4, today.plusDays(3));
+        report.onProductChange(new ProductChangeEvent(ProductChangeEvent.Type.UPDATED, before,
+                new ProductState(1L, "Milk", "Dairy", 2.0, 4, today.plusDays(20))));
+        report.onProductChange(new ProductChangeEvent(ProductChangeEvent.Type.CREATED, null,
+                new ProductState(2L, "Bread", "Bakery", 3.0, 2, today.plusDays(1))));
+
+        Map<String, Object> summary = report.summary(7);
+        Map<String, Map<String, Object>> byCategory = (Map<String, Map<String, Object>>) summary.get("byCategory");
+        assertEquals(2L, byCategory.get("Dairy").get("productCount"));
+        assertEquals(1L, byCategory.get("Bakery").get("productCount"));
+        assertEquals(6.0, (double) byCategory.get("Bakery").get("valueAtRisk"), 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRebuild_ChangeCommittedBeforeTheReadIsNotCountedTwice() {
+        AtomicInteger queries = new AtomicInteger();
+        when(repository.aggregateExpiring(any(), any())).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 1) {
+                // Committed before the query read the table, but its event is applied while it runs
+                report.onProductChange(breadCreated());
+            }
+            return List.<Object[]>of(new Object[]{"Dairy", today, 2L, 10L, 25.0},
+                    new Object[]{"Bakery", today.plusDays(1), 1L, 2L, 6.0});
+        });
+        report.rebuild();
+
+        assertEquals(2, queries.get());
+        Map<String, Map<String, Object>> byCategory =
+                (Map<String, Map<String, Object>>) report.summary(7).get("byCategory");
+        assertEquals(1L, byCategory.get("Bakery").get("productCount"));
+        assertEquals(6.0, (double) byCategory.get("Bakery").get("valueAtRisk"), 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRebuild_ChangeCommittedAfterTheReadIsNotLost() {
+        AtomicInteger queries = new AtomicInteger();
+        when(repository.aggregateExpiring(any(), any())).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 1) {
+                report.onProductChange(breadCreated());
+                return List.<Object[]>of(new Object[]{"Dairy", today, 2L, 10L, 25.0});
+            }
+            return List.<Object[]>of(new Object[]{"Dairy", today, 2L, 10L, 25.0},
+                    new Object[]{"Bakery", today.plusDays(1), 1L, 2L, 6.0});
+        });
+        report.rebuild();
+
+        assertEquals(2, queries.get());
+        Map<String, Map<String, Object>> byCategory =
+                (Map<String, Map<String, Object>>) report.summary(7).get("byCategory");
+        assertEquals(2L, byCategory.get("Dairy").get("productCount"));
+        assertEquals(1L, byCategory.get("Bakery").get("productCount"));
+    }
+
+    @Test
+    public void testSummary_RejectsWindowBeyondHorizon() {
+        assertThrows(InvalidExpiryWindowException.class, () -> report.summary(31));
+    }
+
+    private ProductChangeEvent breadCreated() {
+        return new ProductChangeEvent(ProductChangeEvent.Type.CREATED, null,
+                new ProductState(2L, "Bread", "Bakery", 3.0, 2, today.plusDays(1)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryMetricsHistoryTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final long MINUTE = 60_000;
+
+    @Test
+    public void testHistory_AveragesTheSamplesOfEachBucket() {
+        InventoryMetricsHistory history = history("");
+        history.record(T0.toEpochMilli(), metrics(10, Map.of("Dairy", 10L)));
+        history.record(T0.toEpochMilli() + 30_000, metrics(20, Map.of("Dairy", 20L)));
+        history.record(T0.toEpochMilli() + MINUTE, metrics(30, Map.of("Dairy", 30L)));
+
+        MetricsHistory result = history.history(T0, T0.plusSeconds(120), null, null);
+
+        assertEquals(60, result.stepSeconds());
+        assertArrayEquals(new long[]{T0.toEpochMilli(), T0.toEpochMilli() + MINUTE}, result.timestamps());
+        assertArrayEquals(new double[]{15, 30}, result.global().totalStock());
+        assertArrayEquals(new double[]{150, 300}, result.global().totalValue());
+        assertArrayEquals(new double[]{15, 30}, result.byCategory().get("Dairy").totalStock());
+    }
+
+    @Test
+    public void testHistory_OlderRangesComeFromCoarserBuckets() {
+        InventoryMetricsHistory history = history("");
+        for (int minute = 0; minute < 180; minute++) {
+            history.record(T0.toEpochMilli() + minute * MINUTE, metrics(minute, Map.of()));
+        }
+
+        // Only the last 60 minutes are kept per minute, so three hours need the hour buckets
+        MetricsHistory hourly = history.history(T0, T0.plus(Duration.ofHours(3)), null, null);
+        assertEquals(3600, hourly.stepSeconds());
+        assertArrayEquals(new double[]{29.5, 89.5, 149.5}, hourly.global().totalStock());
+
+        MetricsHistory halfHourly = history.history(T0.plus(Duration.ofHours(2)), T0.plus(Duration.ofHours(3)),
+                Duration.ofMinutes(30), null);
+        assertEquals(1800, halfHourly.stepSeconds());
+        assertArrayEquals(new double[]{134.5, 164.5}, halfHourly.global().totalStock());
+    }
+
+    @Test
+    public void testHistory_TracksAtMostMaxCategories() {
+        InventoryMetricsHistory history = new InventoryMetricsHistory(null, true, 60, 24, 7, 1, "");
+        history.record(T0.toEpochMilli(), metrics(5, new TreeMap<>(Map.of("Bakery", 2L, "Dairy", 3L))));
+
+        MetricsHistory result = history.history(T0, T0.plusSeconds(60), null, null);
+
+        assertArrayEquals(new double[]{2}, result.byCategory().get("Bakery").totalStock());
+        assertFalse(result.byCategory().containsKey("Dairy"));
+        assertEquals(1L, history.stats().get("skippedCategories"));
+    }
+
+    @Test
+    public void testHistory_RejectsEmptyRange() {
+        assertThrows(InvalidMetricsRangeException.class, () -> history("").history(T0, T0, null, null));
+    }
+
+    @Test
+    public void testFile_RestoresBucketsAfterRestart(@TempDir Path directory) throws Exception {
+        String file = directory.resolve("metrics-history.bin").toString();
+        // Two minute buckets, so the first minute is only left in the hour bucket
+        InventoryMetricsHistory first = new InventoryMetricsHistory(null, true, 2, 24, 7, 8, file);
+        first.start();
+        for (int minute = 0; minute < 3; minute++) {
+            first.record(T0.toEpochMilli() + minute * MINUTE, metrics(10 * (minute + 1), Map.of("Dairy", 1L)));
+        }
+        first.stop();
+
+        InventoryMetricsHistory second = new InventoryMetricsHistory(null, true, 2, 24, 7, 8, file);
+        second.start();
+        MetricsHistory minutes = second.history(T0.plusSeconds(60), T0.plusSeconds(180), null, null);
+        assertArrayEquals(new double[]{20, 30}, minutes.global().totalStock());
+        assertArrayEquals(new double[]{1, 1}, minutes.byCategory().get("Dairy").totalStock());
+        // The hour bucket was still open at shutdown and is restored too
+        MetricsHistory hours = second.history(T0, T0.plusSeconds(180), null, null);
+        assertEquals(3600, hours.stepSeconds());
+        assertArrayEquals(new double[]{20}, hours.global().totalStock());
+        second.stop();
+    }
+
+    private static InventoryMetricsHistory history(String file) {
+        return new InventoryMetricsHistory(null, true, 60, 24, 7, 8, file);
+    }
+
+    // Every product costs 10, so value is ten times the stock
+    private static InventoryMetricsSnapshot metrics(long totalStock, Map<String, Long> stockByCategory) {
+        Map<String, MetricTotals> byCategory = new TreeMap<>();
+        stockByCategory.forEach((category, stock) -> byCategory.put(category, new MetricTotals(stock, stock * 10.0, 10.0)));
+        return new InventoryMetricsSnapshot(1, totalStock, totalStock * 10.0, 10.0, byCategory, null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InventoryMetricsStoreTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private InventoryMetricsStore store;
+
+    @BeforeEach
+    public void setUp() {
+        when(repository.aggregateByCategory()).thenReturn(List.<Object[]>of(drinks(1, 10, 20.0)));
+        store = new InventoryMetricsStore(repository, false, 1, 0);
+        store.rebuild();
+    }
+
+    @Test
+    public void testRebuild_ChangeCommittedBeforeTheReadIsNotCountedTwice() {
+        AtomicInteger queries = new AtomicInteger();
+        when(repository.aggregateByCategory()).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 1) {
+                // Committed before the query read the table, but its event is applied while it runs
+                store.onProductChange(cola());
+            }
+            return List.<Object[]>of(drinks(2, 15, 35.0));
+        });
+        store.rebuild();
+
+        assertEquals(2, queries.get());
+        assertEquals(15L, store.getMetrics().totalStock());
+        assertEquals(35.0, store.getMetrics().totalValue(), 1e-9);
+    }
+
+    @Test
+    public void testRebuild_ChangeCommittedAfterTheReadIsNotLost() {
+        AtomicInteger queries = new AtomicInteger();
+        when(repository.aggregateByCategory()).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 1) {
+                store.onProductChange(cola());
+                return List.<Object[]>of(drinks(1, 10, 20.0));
+            }
+            return List.<Object[]>of(drinks(2, 15, 35.0));
+        });
+        store.rebuild();
+
+        assertEquals(2, queries.get());
+        assertEquals(15L, store.getMetrics().totalStock());
+        assertEquals(35.0, store.getMetrics().totalValue(), 1e-9);
+    }
+
+    @Test
+    public void testVerify_RepairsOnlyWhenTwoReadsAgree() {
+        long version = store.getVersion();
+        when(repository.aggregateByCategory()).thenReturn(
+                List.<Object[]>of(drinks(2, 15, 35.0)), List.<Object[]>of(drinks(1, 10, 20.0)));
+        assertTrue(store.verify());
+        assertEquals(10L, store.getMetrics().totalStock());
+        assertEquals(version, store.getVersion());
+
+        when(repository.aggregateByCategory()).thenReturn(List.<Object[]>of(drinks(2, 15, 35.0)));
+        assertFalse(store.verify());
+        assertEquals(15L, store.getMetrics().totalStock());
+        assertEquals(version + 1, store.getVersion());
+    }
+
+    private static ProductChangeEvent cola() {
+        return new ProductChangeEvent(ProductChangeEvent.Type.CREATED, null,
+                new ProductState(2L, "Cola", "Drinks", 3.0, 5, null));
+    }
+
+    private static Object[] drinks(long count, long stock, double value) {
+        return new Object[]{"Drinks", count, stock, value, 2.0 * count, count};
+    }
+}
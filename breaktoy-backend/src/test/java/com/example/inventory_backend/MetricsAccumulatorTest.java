@@ -0,0 +1,55 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsAccumulatorTest {
+
+    @Test
+    public void testTotals_OutOfStockNotInAveragePrice() {
+        MetricsAccumulator accumulator = new MetricsAccumulator();
+        accumulator.add(new ProductState(1L, "p", "Drink", 10.0, 2, null));
+        accumulator.add(new ProductState(2L, "p", "Drink", 30.0, 0, null));
+        accumulator.add(new ProductState(3L, "p", "Food", 5.0, 4, null));
+        accumulator.add(new ProductState(4L, "p", null, null, 1, null));
+
+        assertEquals(4L, accumulator.getProductCount());
+        assertEquals(7L, accumulator.getTotalStock());
+        assertEquals(40.0, accumulator.getTotalValue(), 1e-9);
+        // Out-of-stock products and products without a price do not count towards the average
+        assertEquals(7.5, accumulator.getAvgPrice(), 1e-9);
+    }
+
+    @Test
+    public void testMerge_MatchesSingleAccumulator() {
+        MetricsAccumulator all = new MetricsAccumulator();
+        MetricsAccumulator left = new MetricsAccumulator();
+        MetricsAccumulator right = new MetricsAccumulator();
+        for (int i = 0; i < 1_000; i++) {
+            ProductState product = new ProductState((long) i, "p", "c", 0.1 + (i % 13), i % 5, null);
+            all.add(product);
+            (i % 2 == 0 ? left : right).add(product);
+        }
+        left.merge(right);
+
+        assertEquals(all.getProductCount(), left.getProductCount());
+        assertEquals(all.getTotalStock(), left.getTotalStock());
+        assertEquals(all.getTotalValue(), left.getTotalValue(), 1e-9);
+        assertEquals(all.getAvgPrice(), left.getAvgPrice(), 1e-12);
+    }
+
+    @Test
+    public void testAccumulator_CompensatedSumSurvivesAddRemoveChurn() {
+        MetricsAccumulator accumulator = new MetricsAccumulator();
+        ProductState big = new ProductState(1L, "big", "c", 1e12, 1, null);
+        ProductState small = new ProductState(2L, "small", "c", 0.01, 1, null);
+        accumulator.add(big);
+        for (int i = 0; i < 100_000; i++) {
+            accumulator.add(small);
+        }
+        accumulator.remove(big);
+
+        assertEquals(1_000.0, accumulator.getTotalValue(), 1e-6);
+    }
+}
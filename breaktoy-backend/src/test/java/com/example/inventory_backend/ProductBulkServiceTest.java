@@ -0,0 +1,101 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.example.inventory_backend.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-${random.uuid};DB_CLOSE_DELAY=-1",
+        "inventory.bulk.batch-size=2"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ProductBulkServiceTest {
+
+    @Autowired
+    private ProductBulkService bulkService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    public void testImport_JsonArrayReportsInvalidRows() throws IOException {
+        BulkImportResult result = bulkService.importProducts(input("""
+                [{"name": "Milk", "category": "Dairy", "unitPrice": 2.0, "quantityInStock": 5},
+                 {"category": "Dairy", "unitPrice": 3.0, "quantityInStock": 1},
+                 {"name": "Bread", "category": "Bakery", "unitPrice": "cheap", "quantityInStock": 1},
+                 {"name": "Tea", "category": "Drinks", "unitPrice": 4.0, "quantityInStock": 2}]"""));
+
+        assertEquals(4, result.received());
+        assertEquals(2, result.imported());
+        assertEquals(List.of(2, 3), result.errors().stream().map(BulkImportResult.RowError::row).toList());
+        assertEquals("Name is required", result.errors().get(0).errors().get("name"));
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    public void testImport_NdjsonRetriesFailedBatchRowByRow() throws IOException {
+        // Valid for the bean constraints, but too long for the category column
+        String category = "C".repeat(300);
+        BulkImportResult result = bulkService.importProducts(input("""
+                {"name": "Milk", "category": "Dairy", "unitPrice": 2.0, "quantityInStock": 5}
+                {"name": "Cheese", "category": "%s", "unitPrice": 7.5, "quantityInStock": 1}
+                {"name": "Tea", "category": "Drinks", "unitPrice": 4.0, "quantityInStock": 2}
+                """.formatted(category)));
+
+        assertEquals(3, result.received());
+        assertEquals(2, result.imported());
+        assertEquals(1, result.errors().size());
+        assertEquals(2, result.errors().get(0).row());
+        assertTrue(result.errors().get(0).errors().containsKey("row"));
+        assertEquals(2, productRepository.count());
+        // Only the committed rows reached the change listeners
+        assertEquals(7L, productService.getInventoryMetrics().totalStock());
+    }
+
+    @Test
+    public void testImport_StopsAtMalformedJson() throws IOException {
+        BulkImportResult result = bulkService.importProducts(input("""
+                {"name": "Milk", "category": "Dairy", "unitPrice": 2.0, "quantityInStock": 5}
+                {"name": "Cheese", "category": }
+                {"name": "Tea", "category": "Drinks", "unitPrice": 4.0, "quantityInStock": 2}
+                """));
+
+        assertEquals(2, result.received());
+        assertEquals(1, result.imported());
+        assertEquals(2, result.errors().get(0).row());
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    public void testExport_OneLinePerProduct() throws IOException {
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        bulkService.exportProducts(empty);
+        assertEquals(0, empty.size());
+
+        productService.createProduct(product("Milk", "Dairy", 2.0, 5));
+        productService.createProduct(product("Bread", "Bakery", 1.0, 3));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bulkService.exportProducts(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Milk\""));
+        assertTrue(output.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+    }
+
+    private static ByteArrayInputStream input(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.inventory_backend.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.datasource.url=jdbc:h2:mem:cache-${random.uuid};DB_CLOSE_DELAY=-1")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ProductCacheTest {
+
+    private static final ListingKey FIRST_PAGE =
+            ListingKey.of("milk", List.of("Dairy", "Bakery"), null, "name", null, "asc", "asc", 0, 10);
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    public void testWriteAfterCachedListingIsVisibleOnNextRead() {
+        Product milk = productService.createProduct(product("Milk", "Dairy", 2.0, 5));
+        assertEquals(List.of("Milk"), listedNames());
+        assertEquals(5, productService.findById(milk.getId()).orElseThrow().getQuantityInStock());
+
+        productService.createProduct(product("Bread", "Bakery", 1.0, 3));
+        productService.adjustStock(milk.getId(), -2);
+
+        assertEquals(List.of("Bread", "Milk"), listedNames());
+        assertEquals(3, productService.findById(milk.getId()).orElseThrow().getQuantityInStock());
+    }
+
+    @Test
+    public void testGetListing_CachesFreshResultsUntilTheNextChange() {
+        ProductCache cache = newCache();
+        AtomicInteger loads = new AtomicInteger();
+        cache.getListing(FIRST_PAGE, () -> fresh(loads));
+        // Same query spelled differently: name case and category order do not matter
+        ListingKey respelled =
+                ListingKey.of("MILK", List.of("Bakery", "Dairy", "Bakery"), null, "name", null, "ASC", "asc", 0, 10);
+        cache.getListing(respelled, () -> fresh(loads));
+        assertEquals(1, loads.get());
+
+        cache.onProductChange(milkCreated());
+        cache.getListing(FIRST_PAGE, () -> fresh(loads));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testGetListing_DoesNotCacheAcrossAWriteOrAStaleRead() {
+        ProductCache cache = newCache();
+        AtomicInteger loads = new AtomicInteger();
+        // A change committed while the page was loading: the page may predate it
+        cache.getListing(FIRST_PAGE, () -> {
+            cache.onProductChange(milkCreated());
+            return fresh(loads);
+        });
+        cache.getListing(FIRST_PAGE, () -> new ReadAdmission.Result<>(page(loads), true, false));
+        cache.getListing(FIRST_PAGE, () -> fresh(loads));
+        assertEquals(3, loads.get());
+    }
+
+    private static ProductChangeEvent milkCreated() {
+        return new ProductChangeEvent(ProductChangeEvent.Type.CREATED, null,
+                new ProductState(1L, "Milk", "Dairy", 2.0, 5, null));
+    }
+
+    private static ProductCache newCache() {
+        return new ProductCache(100, Duration.ofMinutes(5), 100, Duration.ofMinutes(5), 3);
+    }
+
+    private static ReadAdmission.Result<Page<Product>> fresh(AtomicInteger loads) {
+        return new ReadAdmission.Result<>(page(loads), false, false);
+    }
+
+    private static Page<Product> page(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new PageImpl<>(List.of());
+    }
+
+    private List<String> listedNames() {
+        return productService.getAllProducts(null, null, null, "name", null, "asc", "asc", 0, 10)
+                .getContent().stream().map(Product::getName).toList();
+    }
+}
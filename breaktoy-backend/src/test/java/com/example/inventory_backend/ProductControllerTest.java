@@ -5,16 +5,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(ProductController.class)
@@ -27,27 +36,139 @@ public class ProductControllerTest {
     private ObjectMapper objectMapper;
 
     @MockBean
-
-    private InventoryMetricsService inventoryMetricsService;
-
     private ProductService productService;
 
+    @MockBean
+    private StockAdjustmentBuffer stockAdjustmentBuffer;
+
 
     // Test GET vacío
     @Test
     public void testGetAllProducts_EmptyList() throws Exception {
-        when(productService.getProductList()).thenReturn(new ArrayList<>());
+        when(productService.getAllProducts(any(), any(), any(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(Page.empty());
 
         mockMvc.perform(get("/products"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
     }
 
+    @Test
+    public void testGetAllProducts_FieldsProjection() throws Exception {
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("Pepsi");
+        product.setCategory("Drink");
+        product.setUnitPrice(11.0);
+        product.setQuantityInStock(15);
+        when(productService.getAllProducts(any(), any(), any(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new PageImpl<>(List.of(product)));
+
+        mockMvc.perform(get("/products").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":1,\"name\":\"Pepsi\"}]", true));
+    }
+
+    @Test
+    public void testGetAllProducts_UnknownField() throws Exception {
+        mockMvc.perform(get("/products").param("fields", "id,colour"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fields").value("Unknown field: colour"));
+    }
+
+    @Test
+    public void testGetMetrics_NotModifiedSkipsComputation() throws Exception {
+        when(productService.getInventoryMetricsEtag()).thenReturn("\"e-7\"");
+
+        mockMvc.perform(get("/products/metrics").header(HttpHeaders.IF_NONE_MATCH, "\"e-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"e-7\""));
+        verify(productService, never()).readInventoryMetrics();
+    }
+
+    @Test
+    public void testGetMetrics_ChangedVersionReturnsBody() throws Exception {
+        InventoryMetricsSnapshot metrics = new InventoryMetricsSnapshot(8, 15, 165.0, 11.0,
+                Map.of("Drink", new MetricTotals(15, 165.0, 11.0)), null);
+        when(productService.getInventoryMetricsEtag()).thenReturn("\"e-8\"");
+        when(productService.readInventoryMetrics()).thenReturn(new ReadAdmission.Result<>(metrics, false, false));
+        when(productService.getInventoryMetricsEtag(metrics)).thenReturn("\"e-8\"");
+
+        mockMvc.perform(get("/products/metrics").header(HttpHeaders.IF_NONE_MATCH, "\"e-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"e-8\""))
+                .andExpect(jsonPath("$.version").value(8))
+                .andExpect(jsonPath("$.byCategory.Drink.totalStock").value(15))
+                .andExpect(jsonPath("$.partitions").doesNotExist());
+    }
+
+    @Test
+    public void testGetMetrics_TaggedWithTheVersionOfTheBody() throws Exception {
+        InventoryMetricsSnapshot metrics = new InventoryMetricsSnapshot(9, 20, 220.0, 11.0, Map.of(), null);
+        when(productService.getInventoryMetricsEtag()).thenReturn("\"e-8\"");
+        when(productService.readInventoryMetrics()).thenReturn(new ReadAdmission.Result<>(metrics, false, false));
+        when(productService.getInventoryMetricsEtag(metrics)).thenReturn("\"e-9\"");
+
+        mockMvc.perform(get("/products/metrics").header(HttpHeaders.IF_NONE_MATCH, "\"e-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"e-9\""))
+                .andExpect(jsonPath("$.version").value(9));
+    }
+
+    @Test
+    public void testGetMetrics_StaleSnapshotIsNotTagged() throws Exception {
+        InventoryMetricsSnapshot metrics = new InventoryMetricsSnapshot(6, 10, 110.0, 11.0, Map.of(), null);
+        when(productService.getInventoryMetricsEtag()).thenReturn("\"e-8\"");
+        when(productService.readInventoryMetrics()).thenReturn(new ReadAdmission.Result<>(metrics, true, false));
+
+        mockMvc.perform(get("/products/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.WARNING, ProductController.STALE_WARNING))
+                .andExpect(jsonPath("$.version").value(6));
+        verify(productService, never()).getInventoryMetricsEtag(any());
+    }
+
+    @Test
+    public void testGetMetricsHistory_ParsesStep() throws Exception {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant to = Instant.parse("2025-01-01T01:00:00Z");
+        when(productService.getInventoryMetricsHistory(from, to, Duration.ofMinutes(15), null))
+                .thenReturn(new MetricsHistory(from, to, 900, new long[]{from.toEpochMilli()},
+                        new MetricsHistory.Series(new double[]{15}, new double[]{165}, new double[]{11}), Map.of()));
+
+        mockMvc.perform(get("/products/metrics/history")
+                        .param("from", from.toString()).param("to", to.toString()).param("step", "15m"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stepSeconds").value(900))
+                .andExpect(jsonPath("$.global.totalStock[0]").value(15.0));
+    }
+
+    @Test
+    public void testGetMetricsHistory_InvalidStep() throws Exception {
+        mockMvc.perform(get("/products/metrics/history").param("step", "often"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.range").value("Invalid step: often"));
+    }
+
+    @Test
+    public void testGetMetrics_OverloadedReturns429() throws Exception {
+        when(productService.readInventoryMetrics()).thenThrow(new ServerBusyException("busy"));
+
+        mockMvc.perform(get("/products/metrics"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.server").value("busy"));
+    }
+
     // Test POST con producto válido
     @Test
     public void testCreateProduct_Valid() throws Exception {
-        List<Product> products = new ArrayList<>();
-        when(productService.getProductList()).thenReturn(products);
+        when(productService.createProduct(any(Product.class))).thenAnswer(invocation -> {
+            Product saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
 
         Product newProduct = new Product();
         newProduct.setName("Pepsi");
@@ -66,8 +187,6 @@ public class ProductControllerTest {
     // Test POST con producto inválido (sin nombre)
     @Test
     public void testCreateProduct_Invalid() throws Exception {
-        when(productService.getProductList()).thenReturn(new ArrayList<>());
-
         Product newProduct = new Product();
         newProduct.setCategory("Drink");
         newProduct.setUnitPrice(11.0);
@@ -80,6 +199,35 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.name").exists());
     }
 
+    @Test
+    public void testUpdateProduct_StaleVersionReturns409() throws Exception {
+        when(productService.updateProduct(any(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        Product stale = new Product();
+        stale.setName("Pepsi");
+        stale.setCategory("Drink");
+        stale.setUnitPrice(11.0);
+        stale.setQuantityInStock(15);
+        stale.setVersion(3L);
+
+        mockMvc.perform(put("/products/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stale)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.version").exists());
+    }
+
+    @Test
+    public void testAdjustStock_AcceptedWhenCoalescing() throws Exception {
+        when(stockAdjustmentBuffer.isEnabled()).thenReturn(true);
+
+        mockMvc.perform(post("/products/1/stock/adjust").param("delta", "-2"))
+                .andExpect(status().isAccepted());
+        verify(stockAdjustmentBuffer).submit(1L, -2);
+        verify(productService, never()).adjustStock(any(), anyInt());
+    }
+
     @Test
     public void testGetProductById_Found() throws Exception {
         Product product = new Product();
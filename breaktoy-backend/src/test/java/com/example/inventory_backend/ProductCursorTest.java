@@ -0,0 +1,57 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductCursorTest {
+
+    private static Product lastRow() {
+        Product product = new Product();
+        product.setId(42L);
+        product.setName("Pepsi Light");
+        product.setCategory("Drink");
+        product.setUnitPrice(11.5);
+        product.setQuantityInStock(3);
+        product.setExpirationDate(null);
+        return product;
+    }
+
+    @Test
+    public void testEncodeDecode_RoundTrip() {
+        ProductCursor cursor = ProductCursor.after(lastRow(), "name", "desc", "expirationDate", "asc");
+
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals("Pepsi Light", decoded.key());
+        assertNull(decoded.key2());
+        assertEquals(42L, decoded.id());
+        assertTrue(decoded.matches("name", "DESC", "expirationDate", "asc"));
+        assertFalse(decoded.matches("name", "asc", "expirationDate", "asc"));
+    }
+
+    @Test
+    public void testAfter_UnknownSortFieldFallsBackToId() {
+        ProductCursor cursor = ProductCursor.after(lastRow(), "whatever", "asc", null, "asc");
+
+        assertEquals("id", cursor.sortBy());
+        assertEquals("42", cursor.key());
+        assertTrue(cursor.matches("somethingElse", "asc", null, "desc"));
+    }
+
+    @Test
+    public void testParseKey_TypedValues() {
+        assertEquals(11.5, ProductCursor.parseKey("unitPrice", "11.5"));
+        assertEquals(LocalDate.of(2025, 1, 31), ProductCursor.parseKey("expirationDate", "2025-01-31"));
+        assertNull(ProductCursor.parseKey("quantityInStock", null));
+    }
+
+    @Test
+    public void testDecode_RejectsGarbage() {
+        assertThrows(InvalidCursorException.class, () -> ProductCursor.decode("not-a-cursor"));
+        assertThrows(InvalidCursorException.class, () -> ProductCursor.decode(""));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.inventory_backend.TestProducts.product;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:history-${random.uuid};DB_CLOSE_DELAY=-1",
+        "inventory.history.flush-interval=10ms"})
+@DirtiesContext
+public class ProductHistoryLogTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductHistoryLog historyLog;
+
+    @MockBean
+    private Clock clock;
+
+    private final AtomicLong ticks = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() {
+        // One second later on every reading, so each change gets its own timestamp
+        when(clock.instant()).thenAnswer(invocation -> START.plusSeconds(ticks.incrementAndGet()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStateAt_ReconstructsEarlierStock() {
+        Product milk = productService.createProduct(product("Milk", "Dairy", 1.0, 10));
+        productService.createProduct(product("Cheese", "Dairy", 1.0, 4));
+        Instant beforeSale = clock.instant();
+        productService.adjustStock(milk.getId(), -3);
+        productService.markProductOutOfStock(milk.getId());
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> (long) historyLog.stats().get("written") == 4);
+
+        assertEquals(10, historyLog.stateAt(milk.getId(), beforeSale).orElseThrow().getQuantityInStock());
+        ProductHistoryEntry latest = historyLog.stateAt(milk.getId(), clock.instant()).orElseThrow();
+        assertEquals(0, latest.getQuantityInStock());
+        assertEquals(-7, latest.getQuantityDelta());
+        assertTrue(historyLog.stateAt(milk.getId(), START).isEmpty());
+
+        Map<String, Object> before = historyLog.stockByCategoryAt(beforeSale);
+        assertEquals(14L, before.get("totalStock"));
+        Map<String, Map<String, Long>> byCategory = (Map<String, Map<String, Long>>) before.get("byCategory");
+        assertEquals(2L, byCategory.get("Dairy").get("productCount"));
+        assertEquals(4L, historyLog.stockByCategoryAt(clock.instant()).get("totalStock"));
+    }
+}
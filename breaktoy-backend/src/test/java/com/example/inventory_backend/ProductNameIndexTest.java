@@ -0,0 +1,72 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProductNameIndexTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private ProductNameIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        when(repository.findAllIdsAndNames()).thenReturn(List.of(
+                new Object[]{1L, "Pepsi Light"},
+                new Object[]{2L, "Coca-Cola"},
+                new Object[]{3L, "PEPPER sauce"},
+                new Object[]{4L, "abcxbcd"}));
+        index = new ProductNameIndex(repository, true);
+        index.rebuild();
+    }
+
+    @Test
+    public void testSearch_SubstringIsCaseInsensitive() {
+        assertArrayEquals(new long[]{1L, 3L}, index.search("PEP").orElseThrow());
+        assertArrayEquals(new long[]{2L}, index.search("a-co").orElseThrow());
+    }
+
+    @Test
+    public void testSearch_ShortQueriesAndTrigramFalsePositives() {
+        assertArrayEquals(new long[]{1L, 3L}, index.search("pe").orElseThrow());
+        assertArrayEquals(new long[0], index.search("abcd").orElseThrow());
+    }
+
+    @Test
+    public void testOnProductChange_UpdatesPostings() {
+        index.onProductChange(ProductChangeEvent.deleted(new ProductState(1L, "Pepsi Light", "Drink", 1.0, 1, null)));
+        index.onProductChange(new ProductChangeEvent(ProductChangeEvent.Type.UPDATED,
+                new ProductState(2L, "Coca-Cola", "Drink", 1.0, 1, null),
+                new ProductState(2L, "Pepsi Max", "Drink", 1.0, 1, null)));
+
+        assertArrayEquals(new long[]{2L, 3L}, index.search("pep").orElseThrow());
+        assertArrayEquals(new long[0], index.search("cola").orElseThrow());
+        assertEquals(3, index.stats().get("products"));
+    }
+
+    @Test
+    public void testRebuild_ReplaysChangesMadeDuringTheRead() {
+        when(repository.findAllIdsAndNames()).thenAnswer(invocation -> {
+            index.onProductChange(new ProductChangeEvent(ProductChangeEvent.Type.UPDATED,
+                    new ProductState(2L, "Coca-Cola", "Drink", 1.0, 1, null),
+                    new ProductState(2L, "Pepsi Max", "Drink", 1.0, 1, null)));
+            index.onProductChange(new ProductChangeEvent(ProductChangeEvent.Type.CREATED, null,
+                    new ProductState(5L, "Pepsi Zero", "Drink", 1.0, 1, null)));
+            return List.<Object[]>of(new Object[]{1L, "Pepsi Light"}, new Object[]{2L, "Coca-Cola"});
+        });
+        index.rebuild();
+
+        assertArrayEquals(new long[]{1L, 2L, 5L}, index.search("pepsi").orElseThrow());
+        assertArrayEquals(new long[0], index.search("cola").orElseThrow());
+    }
+
+    @Test
+    public void testSearch_DisabledIndexDefersToDatabase() {
+        assertTrue(new ProductNameIndex(mock(ProductRepository.class), false).search("pep").isEmpty());
+    }
+}
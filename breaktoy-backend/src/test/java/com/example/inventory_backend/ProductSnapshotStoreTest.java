@@ -0,0 +1,129 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProductSnapshotStoreTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private ProductSnapshotStore store;
+
+    @BeforeEach
+    public void setUp() {
+        when(repository.count()).thenReturn(4L);
+        when(repository.streamSnapshotRows()).thenReturn(Stream.of(
+                new Object[]{1L, "Pepsi", "Drinks", 2.0, 10, LocalDate.of(2025, 1, 1)},
+                new Object[]{2L, "apple", "Food", 1.0, 0, null},
+                new Object[]{3L, "Banana", "Food", null, 5, LocalDate.of(2024, 6, 1)},
+                new Object[]{4L, "cola", "Drinks", 3.0, null, null}));
+        store = new ProductSnapshotStore(repository, new CategoryDictionary(),
+                mock(PlatformTransactionManager.class), 8);
+        store.rebuild();
+    }
+
+    @Test
+    public void testSelect_SortsCaseInsensitiveWithNullsLast() {
+        assertArrayEquals(new long[]{2L, 3L, 4L, 1L},
+                store.select(null, null, null, "name", null, "asc", "asc", 0, 10).ids());
+        assertArrayEquals(new long[]{1L, 2L, 4L, 3L},
+                store.select(null, null, null, "unitPrice", null, "asc", "asc", 0, 10).ids());
+        assertArrayEquals(new long[]{3L, 4L, 1L, 2L},
+                store.select(null, null, null, "unitPrice", null, "desc", "asc", 0, 10).ids());
+    }
+
+    @Test
+    public void testSelect_FiltersAndPages() {
+        ProductSnapshotStore.SnapshotPage page =
+                store.select(null, List.of("Food", "Unknown"), null, "name", null, "desc", "asc", 0, 1);
+        assertEquals(2, page.total());
+        assertArrayEquals(new long[]{3L}, page.ids());
+        assertArrayEquals(new long[]{1L, 3L}, store.select(null, null, true, null, null, "asc", "asc", 0, 10).ids());
+        assertArrayEquals(new long[]{4L}, store.select("OL", null, null, null, null, "asc", "asc", 0, 10).ids());
+    }
+
+    @Test
+    public void testSelect_FacetsCountTheFilteredRows() {
+        ProductSnapshotStore.SnapshotPage page =
+                store.select(null, null, null, "name", null, "asc", "asc", 0, 1, true);
+        assertArrayEquals(new long[]{2L}, page.ids());
+        assertEquals(new ListingFacets(Map.of("Drinks", 2L, "Food", 2L), 2, 1), page.facets());
+
+        ListingFacets filtered = store.select("a", List.of("Food"), null, null, null, "asc", "asc", 0, 0, true).facets();
+        assertEquals(new ListingFacets(Map.of("Food", 2L), 1, 1), filtered);
+        ProductSnapshotStore.SnapshotPage sorted =
+                store.select(null, null, null, "name", "unitPrice", "asc", "desc", 0, 0, true);
+        assertEquals(0, sorted.ids().length);
+        assertEquals(4, sorted.total());
+        assertEquals(new ListingFacets(Map.of("Drinks", 2L, "Food", 2L), 2, 1), sorted.facets());
+        assertNull(store.select(null, null, null, null, null, "asc", "asc", 0, 10).facets());
+    }
+
+    @Test
+    public void testRebuild_KeepsChangesReadDuringTheQuery() {
+        when(repository.streamSnapshotRows()).thenAnswer(invocation -> {
+            // Committed after the query read Pepsi, and folded into the old snapshot by a reader
+            store.onProductChange(new ProductChangeEvent(ProductChangeEvent.Type.STOCK_CHANGED,
+                    new ProductState(1L, "Pepsi", "Drinks", 2.0, 10, LocalDate.of(2025, 1, 1)),
+                    new ProductState(1L, "Pepsi", "Drinks", 2.0, 0, LocalDate.of(2025, 1, 1))));
+            store.current();
+            return Stream.of(
+                    new Object[]{1L, "Pepsi", "Drinks", 2.0, 10, LocalDate.of(2025, 1, 1)},
+                    new Object[]{2L, "apple", "Food", 1.0, 0, null},
+                    new Object[]{3L, "Banana", "Food", null, 5, LocalDate.of(2024, 6, 1)},
+                    new Object[]{4L, "cola", "Drinks", 3.0, null, null});
+        });
+        store.rebuild();
+
+        assertArrayEquals(new long[]{3L}, store.select(null, null, true, null, null, "asc", "asc", 0, 10).ids());
+    }
+
+    @Test
+    public void testTopK_MatchesFullSort() {
+        CategoryDictionary dictionary = new CategoryDictionary();
+        ProductSnapshot.Builder builder = new ProductSnapshot.Builder(1000);
+        Random random = new Random(7);
+        for (int i = 1; i <= 1000; i++) {
+            builder.add(i, random.nextInt(10) == 0 ? null : "item" + random.nextInt(50),
+                    "Cat" + random.nextInt(5), random.nextInt(10) == 0 ? null : (double) random.nextInt(20),
+                    random.nextInt(30), null, dictionary);
+        }
+        ProductSnapshot snapshot = builder.build();
+        int[] rows = new int[snapshot.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        RowSortKeys keys = RowSortKeys.of(snapshot, dictionary, rows, rows.length, "unitPrice", "desc", "name", "asc");
+
+        int[] sorted = keys.sorted(rows.length);
+        assertArrayEquals(Arrays.copyOf(sorted, 25), keys.top(rows.length, 25));
+        assertEquals(0, keys.top(rows.length, 0).length);
+    }
+
+    @Test
+    public void testOnProductChange_AppliedCopyOnWrite() {
+        ProductSnapshot before = store.current();
+        store.onProductChange(ProductChangeEvent.deleted(
+                new ProductState(2L, "apple", "Food", 1.0, 0, null)));
+        store.onProductChange(new ProductChangeEvent(ProductChangeEvent.Type.CREATED, null,
+                new ProductState(7L, "Kiwi", "Fruit", 4.0, 1, null)));
+
+        ProductSnapshot after = store.current();
+        assertEquals(4, before.size());
+        assertEquals(4, after.size());
+        assertTrue(after.rowOf(2L) < 0);
+        assertTrue(after.rowOf(7L) >= 0);
+        assertTrue(before.rowOf(2L) >= 0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.datasource.url=jdbc:h2:mem:stock-${random.uuid};DB_CLOSE_DELAY=-1")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ProductStockBatchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    public void testApplyStockOperations_PerIdResults() {
+        Long milk = productService.createProduct(product("Milk", 10)).getId();
+        Long bread = productService.createProduct(product("Bread", 3)).getId();
+        Long eggs = productService.createProduct(product("Eggs", 0)).getId();
+        Long tea = productService.createProduct(product("Tea", 2)).getId();
+
+        StockBatchResult result = productService.applyStockOperations(List.of(
+                new StockOperation(milk, null, -4, null),
+                new StockOperation(bread, null, null, true),
+                new StockOperation(eggs, 25, null, null),
+                new StockOperation(tea, null, -5, null),
+                new StockOperation(milk, 1, null, null),
+                new StockOperation(999_999L, 1, null, null),
+                new StockOperation(tea, 1, 1, null)));
+
+        assertEquals(7, result.received());
+        assertEquals(3, result.updated());
+        assertEquals(List.of(StockBatchResult.Status.UPDATED, StockBatchResult.Status.UPDATED,
+                        StockBatchResult.Status.UPDATED, StockBatchResult.Status.INSUFFICIENT_STOCK,
+                        StockBatchResult.Status.DUPLICATE, StockBatchResult.Status.NOT_FOUND,
+                        StockBatchResult.Status.INVALID),
+                result.results().stream().map(StockBatchResult.Item::status).toList());
+        assertEquals(6, result.results().get(0).quantityInStock());
+
+        Product updatedMilk = productService.findById(milk).orElseThrow();
+        assertEquals(6, updatedMilk.getQuantityInStock());
+        assertEquals(LocalDate.now(), updatedMilk.getUpdatedAt());
+        assertEquals(1L, updatedMilk.getVersion());
+        assertEquals(0, productService.findById(bread).orElseThrow().getQuantityInStock());
+        assertEquals(25, productService.findById(eggs).orElseThrow().getQuantityInStock());
+        assertEquals(2, productService.findById(tea).orElseThrow().getQuantityInStock());
+        // The change events keep the derived metrics in step with the set-based updates
+        assertEquals(6L + 25 + 2, productService.getInventoryMetrics().totalStock());
+    }
+
+    @Test
+    public void testApplyStockOperations_RejectsEmptyBatch() {
+        assertThrows(InvalidStockBatchException.class, () -> productService.applyStockOperations(List.of()));
+    }
+
+    @Test
+    public void testAdjustStock_ConditionalUpdateNeverGoesNegative() {
+        Long milk = productService.createProduct(product("Milk", 5)).getId();
+
+        assertEquals(2, productService.adjustStock(milk, -3).orElseThrow().getQuantityInStock());
+        assertThrows(InsufficientStockException.class, () -> productService.adjustStock(milk, -3));
+        assertTrue(productService.adjustStock(999_999L, 1).isEmpty());
+
+        Product updatedMilk = productService.findById(milk).orElseThrow();
+        assertEquals(2, updatedMilk.getQuantityInStock());
+        assertEquals(1L, updatedMilk.getVersion());
+        assertEquals(2L, productService.getInventoryMetrics().totalStock());
+    }
+
+    @Test
+    public void testUpdateProduct_StaleVersionIsRejected() {
+        Product milk = productService.createProduct(product("Milk", 5));
+        Product edit = product("Milk", 7);
+        edit.setVersion(milk.getVersion());
+        productService.updateProduct(milk.getId(), edit);
+
+        Product stale = product("Milk", 1);
+        stale.setVersion(milk.getVersion());
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> productService.updateProduct(milk.getId(), stale));
+        assertEquals(7, productService.findById(milk.getId()).orElseThrow().getQuantityInStock());
+    }
+
+    private static Product product(String name, int quantity) {
+        return TestProducts.product(name, "Grocery", 1.0, quantity);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static com.example.inventory_backend.TestProducts.product;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive-${random.uuid};DB_CLOSE_DELAY=-1"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ReactiveProductRoutesTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    public void testGetAllProducts_FiltersSortsAndCounts() {
+        productService.createProduct(product("Milk", "Dairy", 2.0, 5));
+        productService.createProduct(product("Cheese", "Dairy", 7.5, 0));
+        productService.createProduct(product("Bread", "Bakery", 1.0, 3));
+
+        client.get().uri("/products?category=Dairy&sortBy=unitPrice&order=desc&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ProductController.TOTAL_COUNT_HEADER, "2")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Cheese");
+
+        client.get().uri("/products?name=BRE&inStock=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Bread")
+                .jsonPath("$.length()").isEqualTo(1);
+    }
+
+    @Test
+    public void testExport_StreamsEveryProductAsNdjson() {
+        productService.createProduct(product("Milk", "Dairy", 2.0, 5));
+        productService.createProduct(product("Bread", "Bakery", 1.0, 3));
+
+        List<Product> exported = client.get().uri("/products/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Product.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(exported);
+        assertEquals(List.of("Milk", "Bread"), exported.stream().map(Product::getName).toList());
+    }
+
+    @Test
+    public void testWrites_ValidateAndReachTheSharedServices() {
+        client.post().uri("/products")
+                .bodyValue(product("", "Dairy", 2.0, 5))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Name is required");
+
+        Product created = client.post().uri("/products")
+                .bodyValue(product("Milk", "Dairy", 2.0, 5))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Product.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(created);
+
+        client.post().uri("/products/" + created.getId() + "/stock/adjust?delta=-9")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+        client.get().uri("/products/" + created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.quantityInStock").isEqualTo(5);
+        client.get().uri("/products/999999")
+                .exchange()
+                .expectStatus().isNotFound();
+        // The change event went through the same listeners as a servlet write
+        assertEquals(5L, productService.getInventoryMetrics().totalStock());
+    }
+}
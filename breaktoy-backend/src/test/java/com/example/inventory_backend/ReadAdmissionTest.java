@@ -0,0 +1,89 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadAdmissionTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void releaseBlockedLoaders() {
+        release.countDown();
+    }
+
+    @Test
+    public void testRead_IdenticalConcurrentRequestsShareOneLoad() throws Exception {
+        ReadAdmission admission = admission(8, 64, false);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<ReadAdmission.Result<String>> leader = CompletableFuture.supplyAsync(
+                () -> admission.read("listing", "page-0", () -> blockingLoad(loads, "rows")));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> loads.get() == 1);
+
+        CompletableFuture<ReadAdmission.Result<String>> follower = CompletableFuture.supplyAsync(
+                () -> admission.read("listing", "page-0", () -> blockingLoad(loads, "other")));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> (Long) admission.stats().get("coalesced") == 1);
+        release.countDown();
+
+        assertEquals(new ReadAdmission.Result<>("rows", false, false), leader.get(5, TimeUnit.SECONDS));
+        // Joined results may predate a write the follower already saw, so they are not fresh
+        ReadAdmission.Result<String> joined = follower.get(5, TimeUnit.SECONDS);
+        assertEquals("rows", joined.value());
+        assertTrue(joined.joined());
+        assertFalse(joined.fresh());
+        assertEquals(1, loads.get());
+        assertEquals(1L, admission.stats().get("admitted"));
+    }
+
+    @Test
+    public void testRead_RejectsWhenSaturatedAndNothingKept() {
+        ReadAdmission admission = admission(1, 0, false);
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture.runAsync(() -> admission.read("metrics", "all", () -> blockingLoad(loads, "busy")));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> loads.get() == 1);
+
+        assertThrows(ServerBusyException.class, () -> admission.read("listing", "page-0", () -> "rows"));
+        assertEquals(1L, admission.stats().get("rejected"));
+        assertEquals(1, admission.stats().get("inFlight"));
+    }
+
+    @Test
+    public void testRead_ServesLastGoodResultWhenSaturated() {
+        ReadAdmission admission = admission(1, 0, true);
+        assertTrue(admission.read("listing", "page-0", () -> "v1").fresh());
+
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture.runAsync(() -> admission.read("metrics", "all", () -> blockingLoad(loads, "busy")));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> loads.get() == 1);
+
+        ReadAdmission.Result<String> stale = admission.read("listing", "page-0", () -> "v2");
+        assertEquals("v1", stale.value());
+        assertTrue(stale.stale());
+        assertFalse(stale.fresh());
+        assertEquals(1L, admission.stats().get("servedStale"));
+        assertThrows(ServerBusyException.class, () -> admission.read("listing", "page-1", () -> "v2"));
+    }
+
+    private static ReadAdmission admission(int maxConcurrent, int maxQueued, boolean staleResults) {
+        return new ReadAdmission(maxConcurrent, maxQueued, Duration.ofMillis(50), staleResults, 100, Duration.ofMinutes(5));
+    }
+
+    private String blockingLoad(AtomicInteger loads, String value) {
+        loads.incrementAndGet();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.inventory_backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StockAdjustmentBufferTest {
+
+    private final ProductService productService = mock(ProductService.class);
+    private final StockAdjustmentBuffer buffer = new StockAdjustmentBuffer(productService, true);
+
+    @Test
+    public void testFlush_WritesOneMergedDeltaPerProduct() {
+        when(productService.adjustStock(1L, 3)).thenReturn(Optional.of(new Product()));
+        buffer.submit(1L, 5);
+        buffer.submit(1L, -2);
+        buffer.flush();
+
+        verify(productService, times(1)).adjustStock(1L, 3);
+        assertEquals(2L, buffer.stats().get("submitted"));
+        assertEquals(1L, buffer.stats().get("flushedWrites"));
+        assertEquals(0L, buffer.stats().get("pendingProducts"));
+    }
+
+    @Test
+    public void testFlush_RejectsUnknownProductsAndInsufficientStock() {
+        when(productService.adjustStock(1L, 4)).thenReturn(Optional.empty());
+        when(productService.adjustStock(2L, -9)).thenThrow(new InsufficientStockException(2L, -9));
+        buffer.submit(1L, 4);
+        buffer.submit(2L, -9);
+        buffer.flush();
+
+        assertEquals(0L, buffer.stats().get("flushedWrites"));
+        assertEquals(2L, buffer.stats().get("rejected"));
+        assertEquals(0L, buffer.stats().get("pendingProducts"));
+    }
+
+    @Test
+    public void testFlush_KeepsDeltaWhenTheWriteFails() {
+        when(productService.adjustStock(1L, 4))
+                .thenThrow(new QueryTimeoutException("timed out"))
+                .thenReturn(Optional.of(new Product()));
+        buffer.submit(1L, 4);
+        buffer.flush();
+
+        assertEquals(1L, buffer.stats().get("pendingProducts"));
+        assertEquals(1L, buffer.stats().get("retried"));
+
+        buffer.stop();
+        assertEquals(1L, buffer.stats().get("flushedWrites"));
+        assertEquals(0L, buffer.stats().get("pendingProducts"));
+    }
+}
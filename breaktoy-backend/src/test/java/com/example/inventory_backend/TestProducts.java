@@ -0,0 +1,19 @@
+package com.example.inventory_backend;
+
+/**
+ * Unsaved products for the tests that run against a full application context.
+ */
+final class TestProducts {
+
+    private TestProducts() {
+    }
+
+    static Product product(String name, String category, double price, int quantity) {
+        Product product = new Product();
+        product.setName(name);
+        product.setCategory(category);
+        product.setUnitPrice(price);
+        product.setQuantityInStock(quantity);
+        return product;
+    }
+}
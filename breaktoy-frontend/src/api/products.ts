@@ -18,9 +18,11 @@ export interface NewProduct {
 
 export interface Product extends NewProduct {
   id: number;
+  version?: number;
 }
 
 export interface Metrics {
+  version: number;
   totalStock: number;
   totalValue: number;
   avgPrice: number;
@@ -30,10 +32,54 @@ export interface Metrics {
   >;
 }
 
+export interface InventoryEvent {
+  sequence: number;
+  type: 'CREATED' | 'UPDATED' | 'DELETED' | 'STOCK_CHANGED';
+  productId: number;
+  product: Product | null;
+  deltas: { category: string; productCount: number; totalStock: number; totalValue: number }[];
+  metrics: Omit<Metrics, 'byCategory'> & {
+    byCategory: Record<string, Metrics['byCategory'][string] | null>;
+  };
+}
+
+export const inventoryEventsUrl = `${import.meta.env.VITE_API_BASE_URL}/products/events`;
+
 // Listar con filtros, orden y paginación
 export const fetchProducts = (params: Record<string, unknown>) =>
   API.get<Product[]>('/products', { params });
 
+// Listado con conteos por categoría y disponibilidad para el filtro actual
+export interface ListingFacets {
+  byCategory: Record<string, number>;
+  inStock: number;
+  outOfStock: number;
+}
+
+export const fetchProductsWithFacets = (params: Record<string, unknown>) =>
+  API.get<{ content: Product[]; facets: ListingFacets }>('/products', {
+    params: { ...params, facets: true },
+  });
+
+// Paginación por cursor: pasar cursor vacío para la primera página
+export interface CursorPage {
+  items: Product[];
+  nextCursor: string | null;
+}
+
+export const fetchProductsPage = async (
+  params: Record<string, unknown>,
+  cursor = ''
+): Promise<CursorPage> => {
+  const res = await API.get<Product[]>('/products', {
+    params: { ...params, cursor },
+  });
+  return {
+    items: res.data,
+    nextCursor: res.headers['x-next-cursor'] ?? null,
+  };
+};
+
 // CRUD básico
 export const createProduct = (p: NewProduct) =>
   API.post<Product>('/products', p);
@@ -50,5 +96,55 @@ export const markInStock = (id: number, quantity = 10) =>
 export const markOutOfStock = (id: number) =>
   API.post<Product>(`/products/${id}/outofstock`);
 
+// Varias operaciones de stock en una sola petición (una de quantity, delta u outOfStock por id)
+export type StockOperation =
+  | { id: number; quantity: number }
+  | { id: number; delta: number }
+  | { id: number; outOfStock: true };
+
+export interface StockBatchResult {
+  received: number;
+  updated: number;
+  results: {
+    id: number;
+    status: 'UPDATED' | 'NOT_FOUND' | 'INSUFFICIENT_STOCK' | 'DUPLICATE' | 'INVALID';
+    quantityInStock?: number;
+    message?: string;
+  }[];
+}
+
+export const applyStockBatch = (operations: StockOperation[]) =>
+  API.post<StockBatchResult>('/products/stock/batch', operations);
+
+// Ajuste atómico de stock (delta positivo o negativo)
+export const adjustStock = (id: number, delta: number) =>
+  API.post<Product>(`/products/${id}/stock/adjust`, null, {
+    params: { delta },
+  });
+
 // Métricas
 export const fetchMetrics = () => API.get<Metrics>('/products/metrics');
+
+// Histórico de métricas: timestamps (epoch ms) alineados con cada serie
+export interface MetricsSeries {
+  totalStock: number[];
+  totalValue: number[];
+  avgPrice: number[];
+}
+
+export interface MetricsHistory {
+  from: string;
+  to: string;
+  stepSeconds: number;
+  timestamps: number[];
+  global: MetricsSeries;
+  byCategory: Record<string, MetricsSeries>;
+}
+
+// step admite "15m", "1h", "1d" o ISO-8601; sin from/to devuelve la última hora
+export const fetchMetricsHistory = (params: {
+  from?: string;
+  to?: string;
+  step?: string;
+  category?: string[];
+} = {}) => API.get<MetricsHistory>('/products/metrics/history', { params });
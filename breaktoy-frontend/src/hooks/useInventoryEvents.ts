@@ -0,0 +1,42 @@
+import { useEffect, useRef } from 'react';
+import type { InventoryEvent } from '../api/products';
+import { inventoryEventsUrl } from '../api/products';
+
+type Listener = (event: InventoryEvent) => void;
+
+// Una sola conexión SSE para toda la página: se abre con el primer suscriptor,
+// se cierra con el último y reparte cada evento entre todos
+const listeners = new Set<Listener>();
+let source: EventSource | null = null;
+
+const dispatch = (e: MessageEvent) => {
+  const event: InventoryEvent = JSON.parse(e.data);
+  listeners.forEach(listener => listener(event));
+};
+
+const subscribe = (listener: Listener) => {
+  listeners.add(listener);
+  if (!source) {
+    // EventSource reconecta solo si se corta
+    source = new EventSource(inventoryEventsUrl);
+    source.addEventListener('inventory', dispatch);
+  }
+  return () => {
+    listeners.delete(listener);
+    if (listeners.size === 0 && source) {
+      source.removeEventListener('inventory', dispatch);
+      source.close();
+      source = null;
+    }
+  };
+};
+
+// Suscripción a los cambios del inventario
+const useInventoryEvents = (onEvent: Listener) => {
+  const handlerRef = useRef(onEvent);
+  handlerRef.current = onEvent;
+
+  useEffect(() => subscribe(event => handlerRef.current(event)), []);
+};
+
+export default useInventoryEvents;
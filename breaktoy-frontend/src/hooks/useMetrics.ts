@@ -1,6 +1,7 @@
 import { useState, useEffect, useCallback } from 'react';
 import type { Metrics } from '../api/products';
 import { fetchMetrics } from '../api/products';
+import useInventoryEvents from './useInventoryEvents';
 
 const useMetrics = () => {
   const [data, setData] = useState<Metrics | null>(null);
@@ -24,6 +25,25 @@ const useMetrics = () => {
     refetch();
   }, [refetch]);
 
+  // Aplica las métricas que llegan con cada cambio en vez de volver a pedirlas
+  useInventoryEvents(event => {
+    setData(prev => {
+      if (!prev) return prev;
+      const byCategory = { ...prev.byCategory };
+      Object.entries(event.metrics.byCategory).forEach(([category, m]) => {
+        if (m) byCategory[category] = m;
+        else delete byCategory[category];
+      });
+      return {
+        version: event.metrics.version,
+        totalStock: event.metrics.totalStock,
+        totalValue: event.metrics.totalValue,
+        avgPrice: event.metrics.avgPrice,
+        byCategory,
+      };
+    });
+  });
+
   return { data, isLoading, error, refetch };
 };
 
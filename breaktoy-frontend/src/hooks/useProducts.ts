@@ -1,6 +1,7 @@
 import { useState, useEffect, useCallback } from 'react';
 import type { Product } from '../api/products';
 import { fetchProducts } from '../api/products';
+import useInventoryEvents from './useInventoryEvents';
 
 interface Params {
   page: number;
@@ -30,6 +31,17 @@ const useProducts = ({ page, size, filters }: Params) => {
     refetch();
   }, [refetch]);
 
+  // Mantiene al día las filas visibles; altas y filtros nuevos siguen necesitando refetch
+  useInventoryEvents(event => {
+    setData(prev => {
+      if (!prev.some(p => p.id === event.productId)) return prev;
+      if (event.type === 'DELETED' || !event.product) {
+        return prev.filter(p => p.id !== event.productId);
+      }
+      return prev.map(p => (p.id === event.productId ? { ...p, ...event.product } : p));
+    });
+  });
+
   return { data, isLoading, error, refetch };
 };
 